@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "dev.subscripted"
@@ -15,9 +16,31 @@ dependencies {
     implementation("com.zaxxer:HikariCP:2.3.2")
     implementation ("mysql:mysql-connector-java:8.0.33")
 
-
+    // Eingebettete Ersatzdatenbank im MySQL-Modus, damit Benchmarks offline laufen.
+    jmh("com.h2database:h2:2.2.224")
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+jmh {
+    // Auswahl per -PjmhIncludes=ExecutorModeBenchmark
+    if (project.hasProperty("jmhIncludes")) {
+        includes.set(listOf(project.property("jmhIncludes") as String))
+    }
+    resultFormat.set("JSON")
+    // Allokationsrate (gc.alloc.rate.norm) neben dem Durchsatz
+    profilers.set(listOf("gc"))
+}
+
+// Lastgenerator mit gemischten Zugriffen, Optionen per -PloadTestArgs="threads=64 pool=10 duration=60"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the mixed read/write/scan load test against H2 or the database given by url=..."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("dev.subscripted.dbBox_v1.MySQL.loadtest.LoadTest")
+    if (project.hasProperty("loadTestArgs")) {
+        args((project.property("loadTestArgs") as String).split(" ").filter { it.isNotBlank() })
+    }
+}
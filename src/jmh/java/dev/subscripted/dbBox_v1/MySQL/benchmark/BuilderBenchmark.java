@@ -0,0 +1,70 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.builder.Condition;
+import dev.subscripted.dbBox_v1.MySQL.builder.SelectBuilder;
+import dev.subscripted.dbBox_v1.MySQL.builder.SelectTemplate;
+import dev.subscripted.dbBox_v1.MySQL.builder.UpdateBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Erzeugen des SQL-Texts in den Buildern, ohne Datenbank. {@code selectTemplate} zeigt,
+ * was davon bei einer vorkompilierten Abfrage pro Aufruf übrig bleibt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuilderBenchmark {
+
+    private SelectTemplate template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = select().compile();
+    }
+
+    @Benchmark
+    public String selectBuilder() {
+        return select().compile().getSql();
+    }
+
+    @Benchmark
+    public String selectSeek() {
+        return new SelectBuilder(null, "user")
+                .columns("id", "name")
+                .orderBy("created")
+                .orderBy("id")
+                .seekAfter(1_700_000_000L, 42)
+                .limit(500)
+                .compile()
+                .getSql();
+    }
+
+    @Benchmark
+    public String updateBuilder() {
+        return new UpdateBuilder(null, "user")
+                .set("name", "Max")
+                .set("points", 10)
+                .where("id = ?", 42)
+                .compile()
+                .getSql();
+    }
+
+    @Benchmark
+    public String selectTemplate() {
+        return template.getSql();
+    }
+
+    private static SelectBuilder select() {
+        return new SelectBuilder(null, "user")
+                .columns("id", "name", "points")
+                .where("country", "DE")
+                .where(Condition.between("points", 100, 500))
+                .orderBy("id")
+                .limit(100);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+
+/**
+ * H2 im MySQL-Modus als Ersatz für einen echten MySQL-Server, damit Benchmarks offline laufen.
+ */
+public final class EmbeddedDatabase {
+
+    static {
+        // Im JMH-Jar überschreiben sich die META-INF/services-Einträge der Treiber gegenseitig.
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException exception) {
+            throw new IllegalStateException("H2 is not on the benchmark classpath", exception);
+        }
+    }
+
+    private EmbeddedDatabase() {
+    }
+
+    public static DatasourceMySQL datasource(String name) {
+        return new DatasourceMySQL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE", "sa", "");
+    }
+
+    public static DatasourceManagerMySQL manager(String name, DatasourceSettingsMySQL settings) {
+        DatasourceManagerMySQL manager = new DatasourceManagerMySQL(datasource(name), settings);
+        // Simuliert die Antwortzeit eines entfernten Servers, z. B. SELECT DBBOX_SLEEP(1).
+        manager.executeUpdate("CREATE ALIAS IF NOT EXISTS DBBOX_SLEEP FOR 'java.lang.Thread.sleep(long)'").join();
+        return manager;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.ExecutorModeMySQL;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht die Latenz (inkl. p99) von {@link ExecutorModeMySQL#FIXED} und {@link ExecutorModeMySQL#VIRTUAL},
+ * wenn deutlich mehr Anfragen gleichzeitig unterwegs sind als Verbindungen existieren.
+ * Virtuelle Threads benötigen eine JVM ab Java 21, sonst fällt VIRTUAL auf FIXED zurück.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class ExecutorModeBenchmark {
+
+    @Param({"FIXED", "VIRTUAL"})
+    public ExecutorModeMySQL mode;
+
+    @Param({"1"})
+    public long queryMillis;
+
+    private DatasourceManagerMySQL manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = EmbeddedDatabase.manager("executor_" + mode, new DatasourceSettingsMySQL()
+                .executorMode(mode)
+                .minimumIdle(10)
+                .maximumPoolSize(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    public boolean query() {
+        try (DatabaseResultMySQL result = manager.executeQuery("SELECT DBBOX_SLEEP(?)", queryMillis).join()) {
+            return result.next();
+        }
+    }
+}
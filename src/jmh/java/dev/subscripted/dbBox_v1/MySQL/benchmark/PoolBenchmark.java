@@ -0,0 +1,47 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.src.ConnectionPoolMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.PooledConnectionMySQL;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst Ausleihen und Zurückgeben einer Verbindung, ohne Abfrage. Mit 2 Verbindungen für 4 Threads
+ * wird das Warten auf eine freie Verbindung mitgemessen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class PoolBenchmark {
+
+    @Param({"2", "8"})
+    public int poolSize;
+
+    private ConnectionPoolMySQL pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ConnectionPoolMySQL(EmbeddedDatabase.datasource("pool"), new DatasourceSettingsMySQL()
+                .minimumIdle(poolSize)
+                .maximumPoolSize(poolSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public PooledConnectionMySQL borrowRelease() throws SQLException, InterruptedException {
+        PooledConnectionMySQL pooled = pool.borrow();
+        pool.release(pooled);
+        return pooled;
+    }
+}
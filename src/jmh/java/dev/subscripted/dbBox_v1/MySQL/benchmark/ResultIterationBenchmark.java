@@ -0,0 +1,81 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iteriert ein {@link DatabaseResultMySQL} über Spaltennamen, über Spaltenindizes und als Streaming-Ergebnis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultIterationBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private DatasourceManagerMySQL manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = EmbeddedDatabase.manager("iteration", new DatasourceSettingsMySQL());
+        manager.executeUpdate("CREATE TABLE IF NOT EXISTS item (id INT PRIMARY KEY, name VARCHAR(64), price DOUBLE)").join();
+        manager.executeUpdate("DELETE FROM item").join();
+        List<Object[]> values = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            values.add(new Object[]{i, "item-" + i, i * 0.5});
+        }
+        manager.executeBatch("INSERT INTO item (id, name, price) VALUES (?, ?, ?)", values).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    public double byName() {
+        double sum = 0;
+        try (DatabaseResultMySQL result = manager.executeQuery("SELECT id, name, price FROM item").join()) {
+            while (result.next()) {
+                sum += result.getInt("id") + result.getString("name").length() + result.getDouble("price");
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double byIndex() throws SQLException {
+        double sum = 0;
+        try (DatabaseResultMySQL result = manager.executeQuery("SELECT id, name, price FROM item").join()) {
+            ResultSet resultSet = result.getResultSet();
+            while (result.next()) {
+                sum += resultSet.getInt(1) + resultSet.getString(2).length() + resultSet.getDouble(3);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double streaming() throws SQLException {
+        double sum = 0;
+        try (DatabaseResultMySQL result = manager.executeStreamingQuery("SELECT id, name, price FROM item").join()) {
+            ResultSet resultSet = result.getResultSet();
+            while (result.next()) {
+                sum += resultSet.getInt(1) + resultSet.getString(2).length() + resultSet.getDouble(3);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.ResultMapperMySQL;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht {@link ResultMapperMySQL} mit der handgeschriebenen Schleife über Spaltennamen,
+ * wie sie in {@code Main} verwendet wird.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultMapperBenchmark {
+
+    public record User(int id, String password, boolean autoLogin) {
+    }
+
+    @Param({"1000"})
+    public int rows;
+
+    private DatasourceManagerMySQL manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = EmbeddedDatabase.manager("mapper", new DatasourceSettingsMySQL());
+        manager.executeUpdate("CREATE TABLE IF NOT EXISTS user (id INT PRIMARY KEY, password VARCHAR(64), auto_login BOOLEAN)").join();
+        manager.executeUpdate("DELETE FROM user").join();
+        List<Object[]> values = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            values.add(new Object[]{i, "password-" + i, i % 2 == 0});
+        }
+        manager.executeBatch("INSERT INTO user (id, password, auto_login) VALUES (?, ?, ?)", values).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    public List<User> handWritten() {
+        try (DatabaseResultMySQL result = manager.executeQuery("SELECT * FROM user").join()) {
+            List<User> users = new ArrayList<>();
+            while (result.next()) {
+                users.add(new User(result.getInt("id"), result.getString("password"), result.getBoolean("auto_login")));
+            }
+            return users;
+        }
+    }
+
+    @Benchmark
+    public List<User> compiledMapper() {
+        try (DatabaseResultMySQL result = manager.executeQuery("SELECT * FROM user").join()) {
+            return result.mapAll(User.class);
+        }
+    }
+}
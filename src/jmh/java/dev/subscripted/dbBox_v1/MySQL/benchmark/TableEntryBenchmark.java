@@ -0,0 +1,59 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.table.TableCachedEntry;
+import dev.subscripted.dbBox_v1.MySQL.table.TableColumn;
+import dev.subscripted.dbBox_v1.MySQL.table.TableDataType;
+import dev.subscripted.dbBox_v1.MySQL.table.TableRowLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht die typisierten Zugriffe auf eine gecachte Zeile mit dem Weg über {@code TableEntry}
+ * und dem geboxten {@code getValue}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableEntryBenchmark {
+
+    private TableCachedEntry entry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TableRowLayout layout = new TableRowLayout(List.of(
+                new TableColumn("id", TableDataType.INT),
+                new TableColumn("points", TableDataType.LONG),
+                new TableColumn("ratio", TableDataType.DOUBLE),
+                new TableColumn("active", TableDataType.BOOLEAN),
+                new TableColumn("name", TableDataType.STRING)));
+        entry = new TableCachedEntry(System.currentTimeMillis(), layout);
+        entry.set(0, 42);
+        entry.set(1, 1_000_000L);
+        entry.set(2, 0.75);
+        entry.set(3, true);
+        entry.set(4, "Max");
+    }
+
+    @Benchmark
+    public long typed() {
+        return entry.getInt(0) + entry.getLong(1) + (long) entry.getDouble(2) + (entry.getBoolean(3) ? 1 : 0)
+                + entry.getString(4).length();
+    }
+
+    @Benchmark
+    public long tableEntry() {
+        return entry.getEntry(0).asInt() + entry.getEntry(1).asLong() + (long) entry.getEntry(2).asDouble()
+                + (entry.getEntry(3).asBoolean() ? 1 : 0) + entry.getEntry(4).asString().length();
+    }
+
+    @Benchmark
+    public long boxed() {
+        return (Integer) entry.getValue(0) + (Long) entry.getValue(1) + ((Double) entry.getValue(2)).longValue()
+                + ((Boolean) entry.getValue(3) ? 1 : 0) + ((String) entry.getValue(4)).length();
+    }
+}
@@ -0,0 +1,68 @@
+package dev.subscripted.dbBox_v1.MySQL.benchmark;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+import dev.subscripted.dbBox_v1.MySQL.table.Table;
+import dev.subscripted.dbBox_v1.MySQL.table.TableEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Table#get(String, String)} mit gecachter Zeile und mit Fehlgriff, der eine Abfrage auslöst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableGetBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private DatasourceManagerMySQL manager;
+    private Table table;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = EmbeddedDatabase.manager("table_get", new DatasourceSettingsMySQL());
+        manager.executeUpdate("CREATE TABLE IF NOT EXISTS account (id VARCHAR(36) PRIMARY KEY, name VARCHAR(64), points INT)").join();
+        manager.executeUpdate("DELETE FROM account").join();
+        List<Object[]> values = new ArrayList<>();
+        keys = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            keys[i] = "key-" + i;
+            values.add(new Object[]{keys[i], "name-" + i, i});
+        }
+        manager.executeBatch("INSERT INTO account (id, name, points) VALUES (?, ?, ?)", values).join();
+        table = manager.getTable("account", "id");
+        table.getAll(List.of(keys)).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    public TableEntry hit() {
+        return table.get(randomKey(), "points").join();
+    }
+
+    @Benchmark
+    public TableEntry miss() {
+        String key = randomKey();
+        table.getCache().remove(key);
+        return table.get(key, "points").join();
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+}
@@ -0,0 +1,30 @@
+package dev.subscripted.dbBox_v1.MySQL.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf-verteilte Schlüsselindizes: Bei {@code skew} 0 sind alle Schlüssel gleich wahrscheinlich, bei 1 entfallen
+ * auf die ersten 1 % der Schlüssel gut die Hälfte der Zugriffe (bei 10.000 Schlüsseln).
+ */
+final class KeyDistribution {
+
+    private final double[] cumulative;
+
+    KeyDistribution(int keys, double skew) {
+        cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < keys; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
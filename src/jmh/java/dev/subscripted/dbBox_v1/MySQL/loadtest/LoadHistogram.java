@@ -0,0 +1,90 @@
+package dev.subscripted.dbBox_v1.MySQL.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latenz-Histogramm des Lasttests mit derselben Einteilung wie im Manager (8 Buckets je Zweierpotenz).
+ * {@link #interval()} liefert nur die Werte seit dem letzten Aufruf, {@link #total()} alle.
+ */
+final class LoadHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final long[] reported = new long[BUCKETS];
+
+    void record(long nanos) {
+        buckets.incrementAndGet(index(Math.max(nanos, 0)));
+    }
+
+    synchronized Snapshot interval() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            long current = buckets.get(i);
+            counts[i] = current - reported[i];
+            reported[i] = current;
+        }
+        return new Snapshot(counts);
+    }
+
+    Snapshot total() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long sum = 0;
+            for (long bucket : counts) {
+                sum += bucket;
+            }
+            this.count = sum;
+        }
+
+        long count() {
+            return count;
+        }
+
+        /**
+         * Obergrenze des Buckets, in den das Perzentil fällt, in Nanosekunden.
+         */
+        long percentile(double quantile) {
+            if (count == 0)
+                return 0;
+            long rank = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return upperBound(i);
+            }
+            return upperBound(counts.length - 1);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package dev.subscripted.dbBox_v1.MySQL.loadtest;
+
+import dev.subscripted.dbBox_v1.MySQL.benchmark.EmbeddedDatabase;
+import dev.subscripted.dbBox_v1.MySQL.builder.Condition;
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.PoolStatisticsMySQL;
+import dev.subscripted.dbBox_v1.MySQL.table.Table;
+import dev.subscripted.dbBox_v1.MySQL.table.TableCacheStatistics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lastgenerator für {@link DatasourceManagerMySQL} und {@link Table} mit einer Mischung aus Lese-, Schreib- und
+ * Scan-Operationen. Jeder Thread führt seine Operationen nacheinander aus (geschlossene Schleife), mehr Threads als
+ * Verbindungen zeigen also, ab wann der Pool zum Engpass wird.
+ *
+ * Optionen als {@code name=wert}, z. B.:
+ *   ./gradlew loadTest -PloadTestArgs="threads=64 pool=10 duration=60 skew=0.99 read=80 write=15 scan=5"
+ *
+ * Ohne {@code url} läuft der Test gegen die eingebettete H2-Datenbank.
+ */
+public final class LoadTest {
+
+    private enum Operation {
+        READ, WRITE, SCAN
+    }
+
+    private final Map<String, String> options;
+    private final int threads;
+    private final int poolSize;
+    private final int keys;
+    private final long durationSeconds;
+    private final long intervalSeconds;
+    private final int scanLength;
+    private final int readWeight;
+    private final int writeWeight;
+    private final int scanWeight;
+    private final KeyDistribution distribution;
+
+    private final Map<Operation, LoadHistogram> latencies = new HashMap<>();
+    private final Map<Operation, LongAdder> errors = new HashMap<>();
+
+    private DatasourceManagerMySQL manager;
+    private Table table;
+    private volatile boolean running = true;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.threads = intOption("threads", 32);
+        this.poolSize = intOption("pool", 10);
+        this.keys = intOption("keys", 10_000);
+        this.durationSeconds = intOption("duration", 30);
+        this.intervalSeconds = intOption("interval", 5);
+        this.scanLength = intOption("scanLength", 100);
+        this.readWeight = intOption("read", 80);
+        this.writeWeight = intOption("write", 15);
+        this.scanWeight = intOption("scan", 5);
+        this.distribution = new KeyDistribution(keys, Double.parseDouble(options.getOrDefault("skew", "0.99")));
+        if (readWeight + writeWeight + scanWeight <= 0)
+            throw new IllegalArgumentException("read, write and scan must not all be 0");
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LoadHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0)
+                throw new IllegalArgumentException("Expected name=value but got '" + arg + "'");
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        DatasourceSettingsMySQL settings = new DatasourceSettingsMySQL()
+                .minimumIdle(Math.min(2, poolSize))
+                .maximumPoolSize(poolSize);
+        String url = options.get("url");
+        manager = url == null
+                ? EmbeddedDatabase.manager("loadtest", settings)
+                : new DatasourceManagerMySQL(new DatasourceMySQL(url, options.getOrDefault("user", "root"), options.getOrDefault("password", "")), settings);
+        try {
+            prepare();
+            table = manager.getTable("loadtest_account", "id");
+            table.getCache().maximumSize(intOption("cache", keys / 10));
+
+            System.out.printf(Locale.ROOT, "%d threads, pool %d, %d keys, skew %s, mix read/write/scan %d/%d/%d, %ds%n",
+                    threads, poolSize, keys, options.getOrDefault("skew", "0.99"), readWeight, writeWeight, scanWeight, durationSeconds);
+
+            try (PrintWriter csv = openCsv()) {
+                String header = String.format(Locale.ROOT, "%6s %9s %7s %23s %23s %23s %11s %9s %8s",
+                        "time", "ops/s", "errors", "read p50/p99/p999 ms", "write p50/p99/p999 ms", "scan p50/p99/p999 ms",
+                        "pool a/t/w", "wait ms", "hit %");
+                System.out.println(header);
+                if (csv != null)
+                    csv.println("seconds,ops_per_second,errors,read_p50_ms,read_p99_ms,read_p999_ms,write_p50_ms,write_p99_ms,write_p999_ms,"
+                            + "scan_p50_ms,scan_p99_ms,scan_p999_ms,pool_active,pool_total,pool_waiting,pool_wait_avg_ms,cache_hit_ratio");
+
+                List<Thread> workers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    Thread worker = new Thread(this::work, "loadtest-" + i);
+                    worker.setDaemon(true);
+                    workers.add(worker);
+                    worker.start();
+                }
+
+                Interval previous = new Interval(manager.getPoolStatistics(), table.getCache().statistics(), totalErrors());
+                long start = System.nanoTime();
+                long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+                long next = start;
+                while ((next += TimeUnit.SECONDS.toNanos(intervalSeconds)) <= end) {
+                    TimeUnit.NANOSECONDS.sleep(next - System.nanoTime());
+                    previous = report(previous, (next - start) / 1_000_000_000L, csv);
+                }
+                running = false;
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            }
+            summary();
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private void prepare() {
+        manager.executeUpdate("CREATE TABLE IF NOT EXISTS loadtest_account (id VARCHAR(16) PRIMARY KEY, name VARCHAR(64), points INT)").join();
+        long rows;
+        try (DatabaseResultMySQL result = manager.executeQuery("SELECT COUNT(*) AS n FROM loadtest_account").join()) {
+            result.next();
+            rows = result.getLong("n");
+        }
+        if (rows == keys)
+            return;
+        manager.executeUpdate("DELETE FROM loadtest_account").join();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            batch.add(new Object[]{key(i), "name-" + i, 0});
+            if (batch.size() == 1_000 || i == keys - 1) {
+                manager.executeBatch("INSERT INTO loadtest_account (id, name, points) VALUES (?, ?, ?)", batch).join();
+                batch = new ArrayList<>();
+            }
+        }
+    }
+
+    private void work() {
+        int total = readWeight + writeWeight + scanWeight;
+        while (running) {
+            int pick = ThreadLocalRandom.current().nextInt(total);
+            Operation operation = pick < readWeight ? Operation.READ : pick < readWeight + writeWeight ? Operation.WRITE : Operation.SCAN;
+            String key = key(distribution.next());
+            long start = System.nanoTime();
+            try {
+                switch (operation) {
+                    case READ -> table.get(key, "points").join();
+                    case WRITE -> {
+                        manager.executeUpdate("UPDATE loadtest_account SET points = points + 1 WHERE id = ?", key).join();
+                        // Schreiben invalidiert die gecachte Zeile, der nächste Lesezugriff lädt sie neu.
+                        table.getCache().remove(key);
+                    }
+                    case SCAN -> {
+                        try (DatabaseResultMySQL result = table.select()
+                                .columns("id", "points")
+                                .where(Condition.gte("id", key))
+                                .orderBy("id")
+                                .limit(scanLength)
+                                .execute().join()) {
+                            while (result.next()) {
+                                result.getInt("points");
+                            }
+                        }
+                    }
+                }
+                latencies.get(operation).record(System.nanoTime() - start);
+            } catch (RuntimeException exception) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private Interval report(Interval previous, long seconds, PrintWriter csv) {
+        Interval current = new Interval(manager.getPoolStatistics(), table.getCache().statistics(), totalErrors());
+        Map<Operation, LoadHistogram.Snapshot> snapshots = new HashMap<>();
+        long operations = 0;
+        for (Operation operation : Operation.values()) {
+            LoadHistogram.Snapshot snapshot = latencies.get(operation).interval();
+            snapshots.put(operation, snapshot);
+            operations += snapshot.count();
+        }
+        PoolStatisticsMySQL pool = current.pool;
+        long borrows = pool.getBorrowCount() - previous.pool.getBorrowCount();
+        double waitMillis = borrows == 0 ? 0 : (pool.getTotalWaitNanos() - previous.pool.getTotalWaitNanos()) / (double) borrows / 1e6;
+        long hits = current.cache.getHits() - previous.cache.getHits();
+        long lookups = hits + current.cache.getMisses() - previous.cache.getMisses();
+        double hitRatio = lookups == 0 ? 0 : hits / (double) lookups;
+        double throughput = operations / (double) intervalSeconds;
+
+        System.out.printf(Locale.ROOT, "%5ds %9.0f %7d %23s %23s %23s %11s %9.3f %7.1f%%%n",
+                seconds, throughput, current.errors - previous.errors,
+                percentiles(snapshots.get(Operation.READ)), percentiles(snapshots.get(Operation.WRITE)), percentiles(snapshots.get(Operation.SCAN)),
+                pool.getActiveConnections() + "/" + pool.getTotalConnections() + "/" + pool.getWaitingThreads(),
+                waitMillis, hitRatio * 100);
+        if (csv != null) {
+            StringBuilder line = new StringBuilder();
+            line.append(seconds).append(',').append(String.format(Locale.ROOT, "%.1f", throughput)).append(',').append(current.errors - previous.errors);
+            for (Operation operation : Operation.values()) {
+                LoadHistogram.Snapshot snapshot = snapshots.get(operation);
+                for (double quantile : new double[]{0.5, 0.99, 0.999}) {
+                    line.append(',').append(String.format(Locale.ROOT, "%.3f", snapshot.percentile(quantile) / 1e6));
+                }
+            }
+            line.append(',').append(pool.getActiveConnections()).append(',').append(pool.getTotalConnections())
+                    .append(',').append(pool.getWaitingThreads())
+                    .append(',').append(String.format(Locale.ROOT, "%.3f,%.4f", waitMillis, hitRatio));
+            csv.println(line);
+            csv.flush();
+        }
+        return current;
+    }
+
+    private void summary() {
+        System.out.println();
+        for (Operation operation : Operation.values()) {
+            LoadHistogram.Snapshot snapshot = latencies.get(operation).total();
+            System.out.printf(Locale.ROOT, "%-5s %10d ops %9.0f ops/s  p50/p99/p999 %s ms  %d errors%n",
+                    operation.name().toLowerCase(Locale.ROOT), snapshot.count(), snapshot.count() / (double) durationSeconds,
+                    percentiles(snapshot), errors.get(operation).sum());
+        }
+        PoolStatisticsMySQL pool = manager.getPoolStatistics();
+        System.out.printf(Locale.ROOT, "pool  max wait %.3f ms, %d timeouts; cache %s%n",
+                pool.getMaxWaitNanos() / 1e6, pool.getTimeoutCount(), table.getCache().statistics());
+    }
+
+    private PrintWriter openCsv() throws IOException {
+        String csv = options.get("csv");
+        return csv == null ? null : new PrintWriter(Files.newBufferedWriter(Path.of(csv)));
+    }
+
+    private long totalErrors() {
+        long total = 0;
+        for (LongAdder adder : errors.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String percentiles(LoadHistogram.Snapshot snapshot) {
+        return String.format(Locale.ROOT, "%.2f/%.2f/%.2f",
+                snapshot.percentile(0.5) / 1e6, snapshot.percentile(0.99) / 1e6, snapshot.percentile(0.999) / 1e6);
+    }
+
+    private static String key(int index) {
+        return String.format("k%08d", index);
+    }
+
+    private record Interval(PoolStatisticsMySQL pool, TableCacheStatistics cache, long errors) {
+    }
+}
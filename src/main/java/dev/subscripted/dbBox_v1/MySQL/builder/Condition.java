@@ -0,0 +1,159 @@
+package dev.subscripted.dbBox_v1.MySQL.builder;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unveränderliche WHERE-Bedingung, die zu parametrisiertem SQL übersetzt wird, damit die Filterung
+ * in MySQL (und über dessen Indizes) statt im Client stattfindet.
+ *
+ * Beispiel:
+ *   Condition.and(Condition.eq("land", "Deutschland"), Condition.between("alter", 18, 30))
+ *   ergibt "(land = ? AND alter BETWEEN ? AND ?)"
+ */
+public final class Condition {
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    private Condition(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Übernimmt bereits zusammengesetztes SQL, z. B. die WHERE-Bedingungen eines {@link SelectBuilder}.
+     */
+    static Condition of(String sql, List<Object> parameters) {
+        return new Condition(sql, new ArrayList<>(parameters));
+    }
+
+    public static Condition eq(String column, Object value) {
+        return compare(column, "=", value);
+    }
+
+    public static Condition notEq(String column, Object value) {
+        return compare(column, "<>", value);
+    }
+
+    public static Condition gt(String column, Object value) {
+        return compare(column, ">", value);
+    }
+
+    public static Condition gte(String column, Object value) {
+        return compare(column, ">=", value);
+    }
+
+    public static Condition lt(String column, Object value) {
+        return compare(column, "<", value);
+    }
+
+    public static Condition lte(String column, Object value) {
+        return compare(column, "<=", value);
+    }
+
+    public static Condition between(String column, Object from, Object to) {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(from);
+        parameters.add(to);
+        return new Condition(checkColumn(column) + " BETWEEN ? AND ?", parameters);
+    }
+
+    /**
+     * Eine leere Werteliste ergibt eine Bedingung, die auf keine Zeile zutrifft.
+     */
+    public static Condition in(String column, Collection<?> values) {
+        if (values.isEmpty())
+            return new Condition("1 = 0", new ArrayList<>());
+        StringBuilder sql = new StringBuilder(checkColumn(column)).append(" IN (");
+        for (int i = 0; i < values.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        return new Condition(sql.toString(), new ArrayList<>(values));
+    }
+
+    /**
+     * LIKE-Vergleich, z. B. like("name", "Max%"). Nur ein Muster ohne führendes % kann einen Index nutzen.
+     */
+    public static Condition like(String column, String pattern) {
+        return compare(column, "LIKE", pattern);
+    }
+
+    public static Condition isNull(String column) {
+        return new Condition(checkColumn(column) + " IS NULL", new ArrayList<>());
+    }
+
+    public static Condition isNotNull(String column) {
+        return new Condition(checkColumn(column) + " IS NOT NULL", new ArrayList<>());
+    }
+
+    public static Condition and(Condition... conditions) {
+        return combine(" AND ", conditions);
+    }
+
+    public static Condition or(Condition... conditions) {
+        return combine(" OR ", conditions);
+    }
+
+    public static Condition not(Condition condition) {
+        return new Condition("NOT (" + condition.sql + ")", new ArrayList<>(condition.parameters));
+    }
+
+    public Condition and(Condition other) {
+        return and(this, other);
+    }
+
+    public Condition or(Condition other) {
+        return or(this, other);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return sql + " " + parameters;
+    }
+
+    private static Condition compare(String column, String operator, Object value) {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(value);
+        return new Condition(checkColumn(column) + " " + operator + " ?", parameters);
+    }
+
+    private static Condition combine(String operator, Condition... conditions) {
+        if (conditions.length == 0)
+            throw new IllegalArgumentException("At least one condition is required");
+        if (conditions.length == 1)
+            return conditions[0];
+        StringBuilder sql = new StringBuilder("(");
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < conditions.length; i++) {
+            if (i > 0)
+                sql.append(operator);
+            sql.append(conditions[i].sql);
+            parameters.addAll(conditions[i].parameters);
+        }
+        sql.append(")");
+        return new Condition(sql.toString(), parameters);
+    }
+
+    /**
+     * Spaltennamen werden direkt in das SQL eingebaut und deshalb wie Tabellennamen geprüft.
+     */
+    static String checkColumn(String column) {
+        if (column == null || !column.matches("^[a-zA-Z0-9_]+$"))
+            throw new DatabaseException("Invalid column name: " + column);
+        return column;
+    }
+}
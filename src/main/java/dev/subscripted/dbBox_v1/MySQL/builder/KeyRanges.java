@@ -0,0 +1,140 @@
+package dev.subscripted.dbBox_v1.MySQL.builder;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Zerlegt die Zeilen einer Tabelle in etwa gleich große, lückenlose Bereiche ihres Identifiers, damit sie
+ * parallel über mehrere Verbindungen gelesen werden können. Ganzzahlige Identifier werden anhand von MIN und
+ * MAX geteilt, alle anderen an Stichproben per {@code ORDER BY ... LIMIT 1 OFFSET n}.
+ *
+ * Beispiel:
+ *   KeyRanges.split(manager, "user", "id", Condition.eq("land", "DE"), 4, 1_000)
+ *   ergibt u. a. "(land = ? AND id >= ? AND id < ?)"
+ */
+public final class KeyRanges {
+
+    private final long rowCount;
+    private final List<Condition> ranges;
+
+    private KeyRanges(long rowCount, List<Condition> ranges) {
+        this.rowCount = rowCount;
+        this.ranges = List.copyOf(ranges);
+    }
+
+    /**
+     * @param condition       schränkt die Zeilen ein, {@code null} für alle
+     * @param partitions      maximale Anzahl der Bereiche
+     * @param minRowsPerRange kleinere Bereiche werden nicht gebildet, kleine Tabellen also nicht zerlegt
+     */
+    public static CompletableFuture<KeyRanges> split(DatasourceManagerMySQL databaseManager, String table, String identifier,
+                                                     Condition condition, int partitions, long minRowsPerRange) {
+        if (partitions < 1)
+            throw new IllegalArgumentException("partitions must be at least 1");
+        Condition.checkColumn(identifier);
+        String where = condition == null ? "" : " WHERE " + condition.getSql();
+        Object[] parameters = condition == null ? new Object[0] : condition.getParameters().toArray();
+        String query = "SELECT MIN(" + identifier + "), MAX(" + identifier + "), COUNT(*) FROM " + table + where;
+        return databaseManager.executeReadQuery(query, parameters).thenCompose(result -> {
+            Object min;
+            Object max;
+            long count;
+            try (result) {
+                result.next();
+                min = result.getResultSet().getObject(1);
+                max = result.getResultSet().getObject(2);
+                count = result.getResultSet().getLong(3);
+            } catch (SQLException exception) {
+                throw new CompletionException("Error while measuring table '" + table + "'", exception);
+            }
+            if (count == 0)
+                return CompletableFuture.completedFuture(new KeyRanges(0, List.of()));
+            int ranges = (int) Math.max(1, Math.min(partitions, count / Math.max(1, minRowsPerRange)));
+            CompletableFuture<List<Object>> bounds;
+            if (ranges == 1)
+                bounds = CompletableFuture.completedFuture(List.of());
+            else if (isIntegral(min) && isIntegral(max))
+                bounds = CompletableFuture.completedFuture(integralBounds(((Number) min).longValue(), ((Number) max).longValue(), ranges));
+            else
+                bounds = sampledBounds(databaseManager, table, identifier, where, parameters, count, ranges);
+            return bounds.thenApply(splits -> new KeyRanges(count, toConditions(identifier, condition, splits)));
+        });
+    }
+
+    /**
+     * Anzahl der Zeilen, auf die die Bedingung beim Zerlegen zutraf.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Die Bereiche in aufsteigender Reihenfolge des Identifiers, jeweils mit der ursprünglichen Bedingung
+     * verknüpft. Leer, wenn keine Zeile zutrifft.
+     */
+    public List<Condition> getRanges() {
+        return ranges;
+    }
+
+    private static List<Condition> toConditions(String identifier, Condition condition, List<Object> splits) {
+        List<Condition> ranges = new ArrayList<>(splits.size() + 1);
+        for (int i = 0; i <= splits.size(); i++) {
+            List<Condition> parts = new ArrayList<>();
+            if (condition != null)
+                parts.add(condition);
+            if (i > 0)
+                parts.add(Condition.gte(identifier, splits.get(i - 1)));
+            if (i < splits.size())
+                parts.add(Condition.lt(identifier, splits.get(i)));
+            if (parts.isEmpty())
+                parts.add(Condition.isNotNull(identifier));
+            ranges.add(Condition.and(parts.toArray(new Condition[0])));
+        }
+        return ranges;
+    }
+
+    private static List<Object> integralBounds(long min, long max, int ranges) {
+        LinkedHashSet<Object> bounds = new LinkedHashSet<>();
+        for (int i = 1; i < ranges; i++) {
+            long bound = min + (long) ((max - (double) min) * i / ranges);
+            if (bound > min)
+                bounds.add(bound);
+        }
+        return new ArrayList<>(bounds);
+    }
+
+    private static CompletableFuture<List<Object>> sampledBounds(DatasourceManagerMySQL databaseManager, String table, String identifier,
+                                                                 String where, Object[] parameters, long count, int ranges) {
+        List<CompletableFuture<Object>> samples = new ArrayList<>(ranges - 1);
+        for (int i = 1; i < ranges; i++) {
+            String query = "SELECT " + identifier + " FROM " + table + where + " ORDER BY " + identifier
+                    + " LIMIT 1 OFFSET " + count * i / ranges;
+            samples.add(databaseManager.executeReadQuery(query, parameters).thenApply(result -> {
+                try (result) {
+                    return result.next() ? result.getResultSet().getObject(1) : null;
+                } catch (SQLException exception) {
+                    throw new CompletionException("Error while sampling table '" + table + "'", exception);
+                }
+            }));
+        }
+        return CompletableFuture.allOf(samples.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            // Gleiche Stichproben bei vielen doppelten Werten ergäben leere Bereiche.
+            LinkedHashSet<Object> bounds = new LinkedHashSet<>();
+            for (CompletableFuture<Object> sample : samples) {
+                if (sample.join() != null)
+                    bounds.add(sample.join());
+            }
+            return new ArrayList<>(bounds);
+        });
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.subscripted.dbBox_v1.MySQL.builder;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+
+/**
+ * Eine einmal aus einem Builder erzeugte, unveränderliche Abfrage. Der SQL-Text steht fest, bei jeder
+ * Ausführung werden nur die Parameter gebunden; dadurch entfällt das Zusammensetzen des Strings und
+ * der Statement-Cache jeder Verbindung trifft über den gleichbleibenden Text. Templates sind threadsicher
+ * und können z. B. als Konstante gehalten werden.
+ */
+public abstract class QueryTemplate {
+
+    protected final DatasourceManagerMySQL dbManager;
+    private final String sql;
+    private final Object[] defaults;
+    // Position des Parameters je Platzhalter, null wenn jeder Parameter genau einmal in Reihenfolge vorkommt
+    private final int[] placeholders;
+
+    QueryTemplate(DatasourceManagerMySQL dbManager, String sql, Object[] defaults, int[] placeholders) {
+        this.dbManager = dbManager;
+        this.sql = sql;
+        this.defaults = defaults;
+        this.placeholders = placeholders;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Anzahl der Werte, die bei jeder Ausführung übergeben werden müssen, in der Reihenfolge, in der sie
+     * dem Builder übergeben wurden.
+     */
+    public int getParameterCount() {
+        return defaults.length;
+    }
+
+    /**
+     * Die Werte, die dem Builder beim Erzeugen übergeben wurden.
+     */
+    protected Object[] defaults() {
+        return bind(defaults);
+    }
+
+    /**
+     * Ordnet die Werte den Platzhaltern zu. Ohne mehrfach verwendete Parameter wird das Array unverändert
+     * durchgereicht.
+     */
+    protected Object[] bind(Object[] values) {
+        if (values == null || values.length != defaults.length)
+            throw new IllegalArgumentException("Expected " + defaults.length + " parameters for '" + sql + "', got "
+                    + (values == null ? "null" : values.length));
+        if (placeholders == null)
+            return values;
+        Object[] bound = new Object[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            bound[i] = values[placeholders[i]];
+        }
+        return bound;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + sql + "}";
+    }
+}
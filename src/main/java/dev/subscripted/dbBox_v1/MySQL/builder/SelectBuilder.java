@@ -2,18 +2,30 @@ package dev.subscripted.dbBox_v1.MySQL.builder;
 
 import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
 import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.ResultMapperMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.RowMapperMySQL;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class SelectBuilder {
 
+    // Kleinere Tabellen werden nicht zerlegt, der Aufwand für die Bereichsgrenzen lohnt sich nicht.
+    private static final long MIN_ROWS_PER_PARTITION = 1_000;
+
     private final DatasourceManagerMySQL dbManager;
     private final String tableName;
     private final List<String> columns = new ArrayList<>();
     private final List<String> conditions = new ArrayList<>();
     private final List<Object> parameters = new ArrayList<>();
+    private final List<String> orderColumns = new ArrayList<>();
+    private final List<Boolean> orderDescending = new ArrayList<>();
+    private Object[] seekValues;
+    private int limit = -1;
+    private boolean primary;
 
     public SelectBuilder(DatasourceManagerMySQL dbManager, String tableName) {
         this.dbManager = dbManager;
@@ -40,6 +52,15 @@ public class SelectBuilder {
         return this;
     }
 
+    /**
+     * Fügt eine zusammengesetzte Bedingung hinzu, z. B. where(Condition.or(Condition.eq("a", 1), Condition.gt("b", 2)))
+     */
+    public SelectBuilder where(Condition condition) {
+        conditions.add(condition.getSql());
+        parameters.addAll(condition.getParameters());
+        return this;
+    }
+
     /**
      * Ergänzende Methode, falls mehrere Bedingungen verknüpft werden sollen.
      */
@@ -48,9 +69,166 @@ public class SelectBuilder {
     }
 
     /**
-     * Führt die SELECT-Abfrage asynchron aus.
+     * Sortiert aufsteigend nach der Spalte. Mehrere Aufrufe sortieren nach mehreren Spalten.
+     */
+    public SelectBuilder orderBy(String column) {
+        return orderBy(column, false);
+    }
+
+    public SelectBuilder orderBy(String column, boolean descending) {
+        orderColumns.add(Condition.checkColumn(column));
+        orderDescending.add(descending);
+        return this;
+    }
+
+    /**
+     * Begrenzt die Anzahl der gelieferten Zeilen.
+     */
+    public SelectBuilder limit(int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("limit cannot be negative");
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Keyset-Paginierung: liefert nur Zeilen, die in der {@link #orderBy(String)}-Reihenfolge nach den
+     * übergebenen Werten kommen, je ein Wert pro Sortierspalte, üblicherweise die der letzten Zeile der
+     * vorherigen Seite. Anders als OFFSET springt MySQL dabei über den Index direkt an die Stelle, jede
+     * Seite kostet also gleich viel. Die Sortierspalten müssen zusammen eindeutig und nicht NULL sein,
+     * z. B. durch den Identifier als letzte Sortierspalte.
+     *
+     * Beispiel:
+     *   table.select().orderBy("created").orderBy("id").seekAfter(lastCreated, lastId).limit(500).execute()
+     *   ergibt "... WHERE (created > ? OR (created = ? AND id > ?)) ORDER BY created, id LIMIT 500"
+     */
+    public SelectBuilder seekAfter(Object... values) {
+        if (values == null || values.length == 0)
+            throw new IllegalArgumentException("seekAfter needs one value per ORDER BY column");
+        this.seekValues = values.clone();
+        return this;
+    }
+
+    /**
+     * Liest vom Primärserver statt von einem Replikat, z. B. wenn die Abfrage einen eigenen, gerade geschriebenen
+     * Wert sehen muss. Ohne Replikate wirkungslos.
+     *
+     * @see DatasourceManagerMySQL#readFromPrimary(Supplier)
+     */
+    public SelectBuilder fromPrimary() {
+        this.primary = true;
+        return this;
+    }
+
+    /**
+     * Führt die SELECT-Abfrage asynchron aus, bei konfigurierten Replikaten auf einem davon.
      */
     public CompletableFuture<DatabaseResultMySQL> execute() {
+        List<Object> values = new ArrayList<>();
+        String query = buildQuery(null, values);
+        return primary ? dbManager.executeQuery(query, values.toArray()) : dbManager.executeReadQuery(query, values.toArray());
+    }
+
+    /**
+     * Erzeugt eine unveränderliche, threadsichere Vorlage dieser Abfrage, die ohne erneutes Zusammensetzen
+     * des SQL mit neuen Werten ausgeführt werden kann. Die bisher übergebenen Werte dienen als Vorgabe.
+     *
+     * @see SelectTemplate#execute(Object...)
+     */
+    public SelectTemplate compile() {
+        List<Object> values = new ArrayList<>();
+        String query = buildQuery(null, values);
+        List<Object> defaults = new ArrayList<>(parameters);
+        int[] placeholders = null;
+        if (seekValues != null) {
+            // buildSeek wiederholt die vorderen Sortierwerte, der Aufrufer übergibt jeden nur einmal.
+            int offset = parameters.size();
+            placeholders = new int[values.size()];
+            int index = 0;
+            for (; index < offset; index++) {
+                placeholders[index] = index;
+            }
+            for (int i = 0; i < seekValues.length; i++) {
+                for (int j = 0; j < i; j++) {
+                    placeholders[index++] = offset + j;
+                }
+                placeholders[index++] = offset + i;
+            }
+            defaults.addAll(List.of(seekValues));
+        }
+        return new SelectTemplate(dbManager, query, defaults.toArray(), placeholders, primary);
+    }
+
+    /**
+     * Liest alle Zeilen parallel: Der Wertebereich des Identifiers wird in bis zu {@code partitions} Bereiche
+     * zerlegt, die über eigene Verbindungen gestreamt werden. Die Ergebnisse werden in der Reihenfolge der
+     * Bereiche zusammengeführt; mit {@code orderBy(identifier)} ist die Gesamtliste also sortiert.
+     * Der Mapper wird von mehreren Threads gleichzeitig aufgerufen.
+     */
+    public <T> CompletableFuture<List<T>> scanParallel(String identifier, int partitions, RowMapperMySQL<T> mapper) {
+        return scanPartitions(identifier, partitions, () -> mapper);
+    }
+
+    /**
+     * Wie {@link #scanParallel(String, int, RowMapperMySQL)}, die Zeilen werden per {@link ResultMapperMySQL} umgewandelt.
+     */
+    public <T> CompletableFuture<List<T>> scanParallel(String identifier, int partitions, Class<T> type) {
+        ResultMapperMySQL<T> resultMapper = ResultMapperMySQL.of(type);
+        return scanPartitions(identifier, partitions, resultMapper::asRowMapper);
+    }
+
+    /**
+     * Wie {@link #scanParallel(String, int, RowMapperMySQL)}, übergibt die Zeilen aber direkt beim Lesen an
+     * den Consumer, statt sie zu sammeln. Der Consumer wird von mehreren Threads gleichzeitig aufgerufen.
+     */
+    public <T> CompletableFuture<Void> scanParallel(String identifier, int partitions, RowMapperMySQL<T> mapper, Consumer<? super T> consumer) {
+        return scanPartitions(identifier, partitions, () -> row -> {
+            consumer.accept(mapper.map(row));
+            return null;
+        }).thenApply(ignored -> null);
+    }
+
+    private <T> CompletableFuture<List<T>> scanPartitions(String identifier, int partitions, Supplier<RowMapperMySQL<T>> mappers) {
+        if (limit >= 0 || seekValues != null)
+            throw new IllegalStateException("limit and seekAfter cannot be combined with a parallel scan");
+        List<Object> values = new ArrayList<>();
+        String where = buildWhere(values);
+        Condition condition = where.isEmpty() ? null : Condition.of(where, values);
+        boolean fromPrimary = primary;
+        return KeyRanges.split(dbManager, tableName, identifier, condition, partitions, MIN_ROWS_PER_PARTITION).thenCompose(ranges -> {
+            List<CompletableFuture<List<T>>> reads = new ArrayList<>();
+            for (Condition range : ranges.getRanges()) {
+                List<Object> rangeValues = new ArrayList<>();
+                String query = buildQuery(range, rangeValues);
+                RowMapperMySQL<T> mapper = mappers.get();
+                CompletableFuture<DatabaseResultMySQL> read = fromPrimary ? dbManager.executeStreamingQuery(query, rangeValues.toArray())
+                        : dbManager.executeStreamingReadQuery(query, rangeValues.toArray());
+                reads.add(read.thenApply(result -> {
+                    List<T> rows = new ArrayList<>();
+                    try (result) {
+                        while (result.next()) {
+                            T row = mapper.map(result);
+                            if (row != null)
+                                rows.add(row);
+                        }
+                    }
+                    return rows;
+                }));
+            }
+            return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                List<T> merged = new ArrayList<>();
+                for (CompletableFuture<List<T>> read : reads) {
+                    merged.addAll(read.join());
+                }
+                return merged;
+            });
+        });
+    }
+
+    /**
+     * @param range ersetzt die eigenen Bedingungen, wenn gesetzt (sie ist bereits mit ihnen verknüpft)
+     */
+    private String buildQuery(Condition range, List<Object> values) {
         StringBuilder query = new StringBuilder("SELECT ");
         if (columns.isEmpty()) {
             query.append("*");
@@ -63,15 +241,62 @@ public class SelectBuilder {
             }
         }
         query.append(" FROM ").append(tableName);
-        if (!conditions.isEmpty()) {
-            query.append(" WHERE ");
-            for (int i = 0; i < conditions.size(); i++) {
-                query.append(conditions.get(i));
-                if (i < conditions.size() - 1) {
-                    query.append(" AND ");
-                }
+        String where;
+        if (range != null) {
+            where = range.getSql();
+            values.addAll(range.getParameters());
+        } else {
+            where = buildWhere(values);
+        }
+        if (!where.isEmpty())
+            query.append(" WHERE ").append(where);
+        for (int i = 0; i < orderColumns.size(); i++) {
+            query.append(i == 0 ? " ORDER BY " : ", ").append(orderColumns.get(i));
+            if (orderDescending.get(i))
+                query.append(" DESC");
+        }
+        if (limit >= 0)
+            query.append(" LIMIT ").append(limit);
+        return query.toString();
+    }
+
+    private String buildWhere(List<Object> values) {
+        StringBuilder where = new StringBuilder();
+        for (int i = 0; i < conditions.size(); i++) {
+            where.append(conditions.get(i));
+            if (i < conditions.size() - 1) {
+                where.append(" AND ");
+            }
+        }
+        values.addAll(parameters);
+        if (seekValues != null) {
+            if (where.length() > 0)
+                where.append(" AND ");
+            where.append(buildSeek(values));
+        }
+        return where.toString();
+    }
+
+    /**
+     * Ausgeschrieben statt als Zeilenvergleich (a, b) > (?, ?), damit auch gemischte Sortierrichtungen gehen.
+     */
+    private String buildSeek(List<Object> values) {
+        if (seekValues.length != orderColumns.size())
+            throw new IllegalStateException("seekAfter needs one value per ORDER BY column, got " + seekValues.length
+                    + " values for " + orderColumns.size() + " columns");
+        StringBuilder seek = new StringBuilder("(");
+        for (int i = 0; i < orderColumns.size(); i++) {
+            if (i > 0)
+                seek.append(" OR ");
+            seek.append(i == 0 ? "" : "(");
+            for (int j = 0; j < i; j++) {
+                seek.append(orderColumns.get(j)).append(" = ? AND ");
+                values.add(seekValues[j]);
             }
+            seek.append(orderColumns.get(i)).append(orderDescending.get(i) ? " < ?" : " > ?");
+            values.add(seekValues[i]);
+            seek.append(i == 0 ? "" : ")");
         }
-        return dbManager.executeQuery(query.toString(), parameters.toArray());
+        return seek.append(")").toString();
     }
 }
@@ -0,0 +1,64 @@
+package dev.subscripted.dbBox_v1.MySQL.builder;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Vorkompilierte SELECT-Abfrage aus {@link SelectBuilder#compile()}.
+ *
+ * Beispiel:
+ *   SelectTemplate byCountry = table.select().columns("id", "name").where("land", null).compile();
+ *   byCountry.execute("Deutschland")
+ */
+public final class SelectTemplate extends QueryTemplate {
+
+    // Aus SelectBuilder#fromPrimary: nicht von Replikaten lesen
+    private final boolean primary;
+
+    SelectTemplate(DatasourceManagerMySQL dbManager, String sql, Object[] defaults, int[] placeholders, boolean primary) {
+        super(dbManager, sql, defaults, placeholders);
+        this.primary = primary;
+    }
+
+    /**
+     * Führt die Abfrage mit den beim Erzeugen angegebenen Werten aus.
+     */
+    public CompletableFuture<DatabaseResultMySQL> execute() {
+        return read(defaults());
+    }
+
+    /**
+     * Führt die Abfrage mit neuen Werten aus, je einer pro WHERE-Parameter und danach je einer pro
+     * {@code seekAfter}-Wert.
+     */
+    public CompletableFuture<DatabaseResultMySQL> execute(Object... values) {
+        return read(bind(values));
+    }
+
+    /**
+     * Wie {@link #execute(Object...)}, die Zeilen werden aber gestreamt.
+     *
+     * @see DatasourceManagerMySQL#executeStreamingReadQuery(String, Object...)
+     */
+    public CompletableFuture<DatabaseResultMySQL> executeStreaming(Object... values) {
+        return primary ? dbManager.executeStreamingQuery(getSql(), bind(values)) : dbManager.executeStreamingReadQuery(getSql(), bind(values));
+    }
+
+    /**
+     * Führt die Abfrage aus und wandelt alle Zeilen in Records bzw. POJOs um.
+     */
+    public <T> CompletableFuture<List<T>> queryList(Class<T> type, Object... values) {
+        return read(bind(values)).thenApply(result -> {
+            try (result) {
+                return result.mapAll(type);
+            }
+        });
+    }
+
+    private CompletableFuture<DatabaseResultMySQL> read(Object[] values) {
+        return primary ? dbManager.executeQuery(getSql(), values) : dbManager.executeReadQuery(getSql(), values);
+    }
+}
@@ -46,6 +46,16 @@ public class UpdateBuilder {
      * Führt die UPDATE-Abfrage asynchron aus.
      */
     public CompletableFuture<Void> execute() {
+        return compile().execute();
+    }
+
+    /**
+     * Erzeugt eine unveränderliche, threadsichere Vorlage dieses Updates, die ohne erneutes Zusammensetzen
+     * des SQL mit neuen Werten ausgeführt werden kann. Die bisher übergebenen Werte dienen als Vorgabe.
+     *
+     * @see UpdateTemplate#execute(Object...)
+     */
+    public UpdateTemplate compile() {
         if (setValues.isEmpty()) {
             throw new IllegalStateException("Keine Spalten zum Aktualisieren angegeben.");
         }
@@ -67,6 +77,6 @@ public class UpdateBuilder {
                 parameters[idx++] = whereParameters.get(i);
             }
         }
-        return dbManager.executeUpdate(query.toString(), parameters);
+        return new UpdateTemplate(dbManager, query.toString(), parameters);
     }
 }
@@ -0,0 +1,48 @@
+package dev.subscripted.dbBox_v1.MySQL.builder;
+
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Vorkompilierte UPDATE-Abfrage aus {@link UpdateBuilder#compile()}.
+ *
+ * Beispiel:
+ *   UpdateTemplate setName = table.updateBuilder().set("name", null).where("id = ?", 0).compile();
+ *   setName.execute("Max", 42)
+ */
+public final class UpdateTemplate extends QueryTemplate {
+
+    UpdateTemplate(DatasourceManagerMySQL dbManager, String sql, Object[] defaults) {
+        super(dbManager, sql, defaults, null);
+    }
+
+    /**
+     * Führt das Update mit den beim Erzeugen angegebenen Werten aus.
+     */
+    public CompletableFuture<Void> execute() {
+        return dbManager.executeUpdate(getSql(), defaults());
+    }
+
+    /**
+     * Führt das Update mit neuen Werten aus, erst die SET-Werte, dann die WHERE-Parameter.
+     */
+    public CompletableFuture<Void> execute(Object... values) {
+        return dbManager.executeUpdate(getSql(), bind(values));
+    }
+
+    /**
+     * Führt das Update für jeden Parametersatz in einem gemeinsamen JDBC-Batch aus.
+     *
+     * @see DatasourceManagerMySQL#executeBatch(String, List)
+     */
+    public CompletableFuture<int[]> executeBatch(List<Object[]> rows) {
+        List<Object[]> bound = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            bound.add(bind(row));
+        }
+        return dbManager.executeBatch(getSql(), bound);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.subscripted.dbBox_v1.MySQL.exception;
+
+/**
+ * Die Operation wurde von der Zulassungskontrolle abgewiesen, weil die Warteschlange voll war
+ * oder sie zu lange auf einen freien Platz gewartet hat.
+ */
+public class DatabaseOverloadedException extends DatabaseException {
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseOverloadedException(String message) {
+        super(message);
+    }
+}
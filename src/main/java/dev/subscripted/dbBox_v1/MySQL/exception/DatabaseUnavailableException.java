@@ -0,0 +1,13 @@
+package dev.subscripted.dbBox_v1.MySQL.exception;
+
+/**
+ * Die Operation wurde nicht ausgeführt, weil der Circuit Breaker die Datenbank nach wiederholten
+ * Verbindungsfehlern als nicht erreichbar betrachtet.
+ */
+public class DatabaseUnavailableException extends DatabaseException {
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,179 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseOverloadedException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Begrenzt die gleichzeitig laufenden Operationen eines {@link DatasourceManagerMySQL}. Weitere Operationen warten
+ * in einer Warteschlange je {@link LaneMySQL}; ist diese voll oder wartet eine Operation länger als erlaubt, schlägt
+ * ihr Future mit {@link DatabaseOverloadedException} fehl. So wächst bei Überlast weder die Latenz noch der Heap
+ * unbegrenzt.
+ */
+class AdmissionControllerMySQL {
+
+    private final Executor executor;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final MetricsMySQL metrics;
+    private final List<ArrayDeque<Task<?>>> lanes;
+    private int running;
+    private int queued;
+
+    AdmissionControllerMySQL(Executor executor, int maxConcurrent, int maxQueued, long queueTimeoutNanos, MetricsMySQL metrics) {
+        this.executor = executor;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+        this.metrics = metrics;
+        this.lanes = new ArrayList<>(LaneMySQL.values().length);
+        for (int i = 0; i < LaneMySQL.values().length; i++) {
+            lanes.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Führt die Operation auf dem Executor aus, sobald ein Platz frei ist. Ohne Begrenzung wird sie sofort übergeben.
+     */
+    <T> CompletableFuture<T> submit(LaneMySQL lane, Supplier<T> operation) {
+        return submit(lane, release -> operation.get(), false);
+    }
+
+    /**
+     * Wie {@link #submit(LaneMySQL, Supplier)}, der Platz bleibt aber belegt, bis die Operation den übergebenen
+     * {@link Runnable} aufruft, z. B. beim Schließen eines gestreamten Ergebnisses, dessen Verbindung bis dahin
+     * belegt ist. Schlägt die Operation fehl, wird der Platz sofort frei.
+     */
+    <T> CompletableFuture<T> submitHolding(LaneMySQL lane, Function<Runnable, T> operation) {
+        return submit(lane, operation, true);
+    }
+
+    private <T> CompletableFuture<T> submit(LaneMySQL lane, Function<Runnable, T> operation, boolean holding) {
+        Task<T> task = new Task<>(lane, operation, holding, System.nanoTime());
+        if (maxConcurrent == 0) {
+            execute(task, false);
+            return task.future;
+        }
+        boolean start = false;
+        boolean rejected = false;
+        synchronized (this) {
+            if (running < maxConcurrent) {
+                running++;
+                start = true;
+            } else if (queued >= maxQueued) {
+                rejected = true;
+            } else {
+                lanes.get(lane.ordinal()).addLast(task);
+                queued++;
+            }
+        }
+        if (start) {
+            execute(task, true);
+        } else if (rejected) {
+            metrics.recordAdmission(lane, 0, false);
+            task.future.completeExceptionally(new DatabaseOverloadedException("Rejected a " + lane + " operation: "
+                    + maxConcurrent + " operations are running and " + maxQueued + " are queued."));
+        } else if (queueTimeoutNanos > 0) {
+            CompletableFuture.delayedExecutor(queueTimeoutNanos, TimeUnit.NANOSECONDS).execute(() -> expire(task));
+        }
+        return task.future;
+    }
+
+    synchronized int getQueued() {
+        return queued;
+    }
+
+    synchronized int getRunning() {
+        return running;
+    }
+
+    private void execute(Task<?> task, boolean limited) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (limited && released.compareAndSet(false, true))
+                startNext();
+        };
+        try {
+            executor.execute(() -> {
+                try {
+                    // Wartezeit in der Warteschlange und im Executor bis zum Start
+                    metrics.recordAdmission(task.lane, System.nanoTime() - task.enqueuedAt, true);
+                    task.run(release);
+                } finally {
+                    if (!task.holding || task.future.isCompletedExceptionally())
+                        release.run();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            task.future.completeExceptionally(exception);
+            if (limited)
+                startNext();
+        }
+    }
+
+    /**
+     * Gibt den Platz einer beendeten Operation an die wartende Operation mit der höchsten Priorität weiter.
+     */
+    private void startNext() {
+        Task<?> next = null;
+        synchronized (this) {
+            for (ArrayDeque<Task<?>> lane : lanes) {
+                next = lane.pollFirst();
+                if (next != null) {
+                    queued--;
+                    break;
+                }
+            }
+            if (next == null)
+                running--;
+        }
+        if (next != null)
+            execute(next, true);
+    }
+
+    private void expire(Task<?> task) {
+        synchronized (this) {
+            if (!lanes.get(task.lane.ordinal()).remove(task))
+                return;
+            queued--;
+        }
+        metrics.recordAdmission(task.lane, System.nanoTime() - task.enqueuedAt, false);
+        task.future.completeExceptionally(new DatabaseOverloadedException("A " + task.lane + " operation waited more than "
+                + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) + "ms for admission."));
+    }
+
+    private static final class Task<T> {
+        private final LaneMySQL lane;
+        private final Function<Runnable, T> operation;
+        private final boolean holding;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Task(LaneMySQL lane, Function<Runnable, T> operation, boolean holding, long enqueuedAt) {
+            this.lane = lane;
+            this.operation = operation;
+            this.holding = holding;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private void run(Runnable release) {
+            try {
+                future.complete(operation.apply(release));
+            } catch (Throwable exception) {
+                // Wie bei CompletableFuture.supplyAsync
+                future.completeExceptionally(exception instanceof CompletionException ? exception : new CompletionException(exception));
+            }
+        }
+    }
+}
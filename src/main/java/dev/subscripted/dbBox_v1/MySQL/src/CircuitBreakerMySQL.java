@@ -0,0 +1,137 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseUnavailableException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Schützt die Datenbank vor Wiederholungsstürmen: Nach mehreren aufeinanderfolgenden Verbindungsfehlern
+ * ({@link State#OPEN}) schlagen Operationen sofort fehl, ohne den Pool oder den Server zu belasten.
+ * Nach Ablauf der Wartezeit lässt der Breaker eine einzelne Probe durch ({@link State#HALF_OPEN});
+ * gelingt sie, ist er wieder geschlossen, sonst beginnt die Wartezeit von vorn. In der Zwischenzeit
+ * öffnet der Pool Ersatzverbindungen im Hintergrund.
+ *
+ * @see DatasourceSettingsMySQL#circuitBreaker(int, long, java.util.concurrent.TimeUnit)
+ */
+public class CircuitBreakerMySQL {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final BiConsumer<State, State> onTransition;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder openCount = new LongAdder();
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreakerMySQL(int failureThreshold, long openMillis, BiConsumer<State, State> onTransition) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.onTransition = onTransition;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * Wie oft der Breaker geöffnet wurde.
+     */
+    public long getOpenCount() {
+        return openCount.sum();
+    }
+
+    /**
+     * Operationen, die wegen des offenen Breakers sofort abgelehnt wurden.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Prüft vor einem Versuch, ob er ausgeführt werden darf. Jedem erlaubten Versuch muss genau ein
+     * {@link #record(Throwable)} folgen.
+     *
+     * @throws DatabaseUnavailableException solange der Breaker offen ist
+     */
+    void acquire() {
+        if (tryAcquire())
+            return;
+        rejected.increment();
+        throw new DatabaseUnavailableException("The database is considered unavailable after " + failureThreshold
+                + " consecutive connection failures; failing fast for up to " + openMillis + "ms.");
+    }
+
+    /**
+     * Wie {@link #acquire()}, liefert aber {@code false} statt einer Ausnahme.
+     */
+    boolean tryAcquire() {
+        if (failureThreshold == 0 || state == State.CLOSED)
+            return true;
+        synchronized (this) {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis)
+                transition(State.HALF_OPEN);
+            if (state == State.CLOSED)
+                return true;
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Meldet das Ergebnis eines Versuchs, {@code null} bei Erfolg. Nur Verbindungsfehler zählen als Ausfall;
+     * jeder andere Fehler zeigt, dass der Server antwortet.
+     */
+    void record(Throwable failure) {
+        if (failureThreshold == 0)
+            return;
+        SqlErrorKindMySQL kind = failure == null ? null : SqlErrorKindMySQL.classify(failure);
+        boolean connectionFailure = kind == SqlErrorKindMySQL.CONNECTION;
+        // Ein erschöpfter Pool oder ein Interrupt sagt nichts über den Zustand des Servers aus.
+        boolean neutral = kind == SqlErrorKindMySQL.POOL_EXHAUSTED || kind == SqlErrorKindMySQL.INTERRUPTED;
+        // Schneller Pfad ohne Lock für den Normalbetrieb
+        if (state == State.CLOSED && !connectionFailure) {
+            if (!neutral && consecutiveFailures.get() != 0)
+                consecutiveFailures.set(0);
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN)
+                probeInFlight = false;
+            if (neutral)
+                return;
+            if (!connectionFailure) {
+                consecutiveFailures.set(0);
+                if (state != State.CLOSED)
+                    transition(State.CLOSED);
+                return;
+            }
+            int failures = consecutiveFailures.incrementAndGet();
+            if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+                openedAt = System.currentTimeMillis();
+                openCount.increment();
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    private void transition(State next) {
+        State previous = state;
+        state = next;
+        onTransition.accept(previous, next);
+    }
+}
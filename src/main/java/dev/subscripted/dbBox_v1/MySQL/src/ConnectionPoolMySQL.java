@@ -0,0 +1,305 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Elastischer Verbindungspool zwischen {@code minimumIdle} und {@code maximumPoolSize} Verbindungen.
+ * Verbindungen werden bei der Ausleihe geprüft, nach Leerlauf oder Ablauf der Lebensdauer ersetzt
+ * und zu lange ausgeliehene Verbindungen werden als mögliches Leck gemeldet.
+ */
+public class ConnectionPoolMySQL {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPoolMySQL.class.getName());
+
+    private final DatasourceMySQL info;
+    private final DatasourceSettingsMySQL settings;
+    private final LinkedBlockingDeque<PooledConnectionMySQL> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnectionMySQL> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder closedCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final StatementCacheMySQL.Counters statementCacheCounters = new StatementCacheMySQL.Counters();
+
+    private volatile boolean closed;
+
+    public ConnectionPoolMySQL(DatasourceMySQL info, DatasourceSettingsMySQL settings) {
+        this(info, settings, true);
+    }
+
+    /**
+     * @param failFast ob eine fehlgeschlagene erste Verbindung eine Ausnahme auslöst; sonst wird sie nur protokolliert
+     *                 und der Pool im Hintergrund gefüllt, sobald der Server erreichbar ist (für Replikate)
+     */
+    ConnectionPoolMySQL(DatasourceMySQL info, DatasourceSettingsMySQL settings, boolean failFast) {
+        this.info = info;
+        this.settings = settings;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dbBox-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Die erste Verbindung wird synchron geöffnet, damit falsche Zugangsdaten sofort auffallen.
+        if (settings.getMinimumIdle() > 0 && reserveSlot()) {
+            try {
+                idleConnections.offerFirst(createConnection());
+            } catch (SQLException exception) {
+                if (failFast) {
+                    housekeeper.shutdownNow();
+                    throw new DatabaseException("Failed to create a database connection.", exception);
+                }
+                LOGGER.log(Level.WARNING, "Failed to create a database connection to " + info.describe() + ", retrying in the background.", exception);
+            }
+        }
+        housekeeper.execute(this::fillPool);
+        long period = settings.getHousekeepingPeriodMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leiht eine Verbindung aus. Ist keine frei und das Maximum erreicht, wird bis zum
+     * konfigurierten Timeout gewartet.
+     *
+     * @throws SQLTransientConnectionException wenn innerhalb des Timeouts keine Verbindung frei wird
+     */
+    public PooledConnectionMySQL borrow() throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.getConnectionTimeoutMillis());
+        while (true) {
+            if (closed)
+                throw new SQLException("The connection pool has been shut down.");
+            PooledConnectionMySQL pooled = idleConnections.pollFirst();
+            if (pooled == null && reserveSlot())
+                pooled = createConnection();
+            if (pooled == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeoutCount.increment();
+                    throw new PoolTimeoutException("No database connection available after "
+                            + settings.getConnectionTimeoutMillis() + "ms (" + statistics() + ")");
+                }
+                waitingThreads.incrementAndGet();
+                try {
+                    pooled = idleConnections.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                } finally {
+                    waitingThreads.decrementAndGet();
+                }
+                if (pooled == null)
+                    continue;
+            }
+            if (!isUsable(pooled)) {
+                discard(pooled);
+                continue;
+            }
+            recordWait(System.nanoTime() - start);
+            long threshold = settings.getLeakDetectionThresholdMillis();
+            pooled.markBorrowed(System.currentTimeMillis(), threshold > 0 ? new Exception("Connection borrowed here") : null);
+            borrowedConnections.add(pooled);
+            return pooled;
+        }
+    }
+
+    /**
+     * Gibt eine Verbindung in den Pool zurück.
+     */
+    public void release(PooledConnectionMySQL pooled) {
+        if (!borrowedConnections.remove(pooled))
+            return;
+        long now = System.currentTimeMillis();
+        if (closed || pooled.isExpired(now, settings.getMaxLifetimeMillis()) || isClosed(pooled)) {
+            discard(pooled);
+            return;
+        }
+        pooled.markReturned(now);
+        idleConnections.offerFirst(pooled);
+    }
+
+    /**
+     * Entfernt eine fehlerhafte Verbindung aus dem Pool. Ein Ersatz wird im Hintergrund geöffnet.
+     */
+    public void invalidate(PooledConnectionMySQL pooled) {
+        if (borrowedConnections.remove(pooled))
+            discard(pooled);
+    }
+
+    public PoolStatisticsMySQL statistics() {
+        int idle = idleConnections.size();
+        int active = borrowedConnections.size();
+        return new PoolStatisticsMySQL(totalConnections.get(), active, idle, waitingThreads.get(),
+                borrowCount.sum(), timeoutCount.sum(), totalWaitNanos.sum(), maxWaitNanos.get(),
+                createdCount.sum(), closedCount.sum(), validationFailures.sum(), leaksDetected.sum());
+    }
+
+    /**
+     * Ausgeliehene Verbindungen plus wartende Threads, d. h. die Operationen, die gerade auf diesen Server entfallen.
+     */
+    int inFlight() {
+        return borrowedConnections.size() + waitingThreads.get();
+    }
+
+    public StatementCacheStatisticsMySQL statementCacheStatistics() {
+        return statementCacheCounters.snapshot();
+    }
+
+    /**
+     * Schließt alle freien Verbindungen. Ausgeliehene Verbindungen werden bei der Rückgabe geschlossen.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnectionMySQL pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private PooledConnectionMySQL createConnection() throws SQLException {
+        try {
+            Properties properties = new Properties();
+            if (info.getUser() != null)
+                properties.setProperty("user", info.getUser());
+            if (info.getPassword() != null)
+                properties.setProperty("password", info.getPassword());
+            if (settings.isServerSidePreparedStatements())
+                properties.setProperty("useServerPrepStmts", "true");
+            // Erst damit fasst Connector/J gebündelte INSERTs zu einem einzigen Statement zusammen.
+            if (settings.isUpdateBatching())
+                properties.setProperty("rewriteBatchedStatements", "true");
+            Connection connection = DriverManager.getConnection(info.getUrl(), properties);
+            createdCount.increment();
+            return new PooledConnectionMySQL(connection, settings.getStatementCacheSize(), statementCacheCounters);
+        } catch (SQLException | RuntimeException exception) {
+            totalConnections.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= settings.getMaximumPoolSize())
+                return false;
+            if (totalConnections.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    private boolean isUsable(PooledConnectionMySQL pooled) {
+        long now = System.currentTimeMillis();
+        if (pooled.isExpired(now, settings.getMaxLifetimeMillis()))
+            return false;
+        if (!settings.isValidateOnBorrow() || now - pooled.getLastUsedAt() < settings.getValidationBypassMillis())
+            return true;
+        try {
+            if (pooled.getConnection().isValid(settings.getValidationTimeoutSeconds()))
+                return true;
+        } catch (SQLException exception) {
+            LOGGER.log(Level.FINE, "Connection validation failed.", exception);
+        }
+        validationFailures.increment();
+        return false;
+    }
+
+    private boolean isClosed(PooledConnectionMySQL pooled) {
+        try {
+            return pooled.getConnection().isClosed();
+        } catch (SQLException exception) {
+            return true;
+        }
+    }
+
+    private void discard(PooledConnectionMySQL pooled) {
+        pooled.retire();
+        totalConnections.decrementAndGet();
+        closedCount.increment();
+        if (!closed && (waitingThreads.get() > 0 || totalConnections.get() < settings.getMinimumIdle())) {
+            try {
+                housekeeper.execute(this::fillPool);
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Öffnet Verbindungen bis {@code minimumIdle} erreicht ist bzw. alle wartenden Threads bedient werden können.
+     */
+    private void fillPool() {
+        while (!closed && (totalConnections.get() < settings.getMinimumIdle()
+                || waitingThreads.get() > idleConnections.size()) && reserveSlot()) {
+            try {
+                idleConnections.offerLast(createConnection());
+            } catch (SQLException exception) {
+                LOGGER.log(Level.WARNING, "Failed to open a pooled database connection.", exception);
+                return;
+            }
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        for (PooledConnectionMySQL pooled : new ArrayList<>(idleConnections)) {
+            boolean idleTooLong = settings.getIdleTimeoutMillis() > 0
+                    && now - pooled.getLastUsedAt() > settings.getIdleTimeoutMillis()
+                    && totalConnections.get() > settings.getMinimumIdle();
+            if ((idleTooLong || pooled.isExpired(now, settings.getMaxLifetimeMillis())) && idleConnections.remove(pooled))
+                discard(pooled);
+        }
+        long threshold = settings.getLeakDetectionThresholdMillis();
+        if (threshold > 0) {
+            for (PooledConnectionMySQL pooled : borrowedConnections) {
+                if (!pooled.isLeakReported() && now - pooled.getBorrowedAt() > threshold) {
+                    pooled.markLeakReported();
+                    leaksDetected.increment();
+                    LOGGER.log(Level.WARNING, "Possible connection leak: connection borrowed for more than "
+                            + threshold + "ms.", pooled.getBorrowTrace());
+                }
+            }
+        }
+        fillPool();
+    }
+
+    /**
+     * Innerhalb des Timeouts wurde keine Verbindung frei; wird nicht wiederholt.
+     */
+    static final class PoolTimeoutException extends SQLTransientConnectionException {
+        private static final long serialVersionUID = 1L;
+
+        PoolTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Ein Datenbankserver mit eigenem Verbindungspool und Circuit Breaker, also der Primärserver oder ein Replikat.
+ */
+final class DatabaseNodeMySQL {
+
+    private final String name;
+    private final ConnectionPoolMySQL pool;
+    private final CircuitBreakerMySQL circuitBreaker;
+
+    DatabaseNodeMySQL(String name, ConnectionPoolMySQL pool, CircuitBreakerMySQL circuitBreaker) {
+        this.name = name;
+        this.pool = pool;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    ConnectionPoolMySQL getPool() {
+        return pool;
+    }
+
+    CircuitBreakerMySQL getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -5,14 +5,30 @@ import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DatabaseResultMySQL implements AutoCloseable {
     private final ResultSet result;
     private final PreparedStatement statement;
+    private final Runnable releaseStatement;
 
     public DatabaseResultMySQL(ResultSet result, PreparedStatement statement) {
+        this(result, statement, null);
+    }
+
+    /**
+     * @param releaseStatement wird beim Schließen statt {@link PreparedStatement#close()} ausgeführt,
+     *                         z. B. um das Statement an den {@link StatementCacheMySQL} zurückzugeben
+     */
+    public DatabaseResultMySQL(ResultSet result, PreparedStatement statement, Runnable releaseStatement) {
         this.result = result;
         this.statement = statement;
+        this.releaseStatement = releaseStatement;
     }
 
     public boolean next() {
@@ -23,6 +39,40 @@ public class DatabaseResultMySQL implements AutoCloseable {
         }
     }
 
+    /**
+     * Liefert die verbleibenden Zeilen als sequenziellen {@link Stream}. Zeilen werden erst beim
+     * Konsumieren gelesen; das Schließen des Streams schließt auch dieses Ergebnis.
+     */
+    public <T> Stream<T> stream(RowMapperMySQL<T> mapper) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!next())
+                    return false;
+                action.accept(mapper.map(DatabaseResultMySQL.this));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Wandelt alle verbleibenden Zeilen in Records bzw. POJOs des angegebenen Typs um.
+     *
+     * @see ResultMapperMySQL
+     */
+    public <T> List<T> mapAll(Class<T> type) {
+        return ResultMapperMySQL.of(type).mapAll(this);
+    }
+
+    /**
+     * Wie {@link #stream(RowMapperMySQL)}, die Zeilen werden per {@link ResultMapperMySQL} umgewandelt.
+     */
+    public <T> Stream<T> stream(Class<T> type) {
+        ResultMapperMySQL<T>.Bound bound = ResultMapperMySQL.of(type).bind(this);
+        return stream(row -> bound.map(row.getResultSet()));
+    }
+
     public ResultSet getResultSet() {
         return result;
     }
@@ -108,12 +158,16 @@ public class DatabaseResultMySQL implements AutoCloseable {
         } catch (SQLException exception) {
             throw new DatabaseException("Error occurred while trying to close the ResultSet.", exception);
         } finally {
-            try {
-                if (statement != null && !statement.isClosed()) {
-                    statement.close();
+            if (releaseStatement != null) {
+                releaseStatement.run();
+            } else {
+                try {
+                    if (statement != null && !statement.isClosed()) {
+                        statement.close();
+                    }
+                } catch (SQLException exception) {
+                    throw new DatabaseException("Error occurred while trying to close the PreparedStatement.", exception);
                 }
-            } catch (SQLException exception) {
-                throw new DatabaseException("Error occurred while trying to close the PreparedStatement.", exception);
             }
         }
     }
@@ -1,13 +1,19 @@
 package dev.subscripted.dbBox_v1.MySQL.src;
 
 import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseOverloadedException;
 import dev.subscripted.dbBox_v1.MySQL.table.Table;
 import dev.subscripted.dbBox_v1.MySQL.table.TableBuilder;
+import dev.subscripted.dbBox_v1.MySQL.table.TableSchemaCache;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,77 +22,261 @@ import java.util.logging.Logger;
  */
 public class DatasourceManagerMySQL {
 
-    private final int MAX_CONNECTIONS = 10;
-    private final int MAX_ATTEMPTS = 3;
+    // Unter diesem Namen erscheinen Transaktionen in den Metriken
+    private static final String TRANSACTION_QUERY = "<transaction>";
     private final DatasourceMySQL info;
-    private final BlockingQueue<Connection> connectionPool;
+    private final DatasourceSettingsMySQL settings;
+    private final ConnectionPoolMySQL connectionPool;
     private final List<Table> tables;
+    private final TableSchemaCache schemaCache;
 
     // Eigener ExecutorService für asynchrone Operationen
-    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONNECTIONS);
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    // Führt Aufgaben über den Executor aus und zählt dabei die wartenden
+    private final Executor taskExecutor;
+    private final MetricsMySQL metrics;
+    private final CircuitBreakerMySQL circuitBreaker;
+    private final DatabaseNodeMySQL primary;
+    private final ReplicaSetMySQL replicas;
+    private final AdmissionControllerMySQL admissionController;
+    // Von withLane gesetzte Priorität für Operationen, die auf diesem Thread gestartet werden
+    private static final ThreadLocal<LaneMySQL> CURRENT_LANE = new ThreadLocal<>();
+    // Von readFromPrimary gesetzt: Lesezugriffe, die auf diesem Thread gestartet werden, gehen an den Primärserver
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+    private final UpdateBatcherMySQL updateBatcher;
 
     private static final Logger LOGGER = Logger.getLogger(DatasourceManagerMySQL.class.getName());
 
     public DatasourceManagerMySQL(DatasourceMySQL info) {
-        this.info = info;
-        this.connectionPool = new ArrayBlockingQueue<>(MAX_CONNECTIONS);
-        for (int i = 1; i < MAX_CONNECTIONS; i++) {
-            connectionPool.add(openConnection());
-        }
+        this(info, new DatasourceSettingsMySQL());
+    }
+
+    public DatasourceManagerMySQL(DatasourceMySQL info, DatasourceSettingsMySQL settings) {
+        this(info, List.of(), settings);
+    }
+
+    /**
+     * Trennt Lese- und Schreibzugriffe: Schreibzugriffe, Transaktionen und {@link #executeQuery(String, Object...)}
+     * gehen an den Primärserver, {@link #executeReadQuery(String, Object...)} und damit {@link dev.subscripted.dbBox_v1.MySQL.builder.SelectBuilder}
+     * sowie die Ladezugriffe von {@link Table} an die Replikate. Jedes Replikat erhält einen eigenen Pool mit den
+     * Einstellungen des Primärservers, verteilt wird nach {@link DatasourceSettingsMySQL#replicaLoadBalancing(LoadBalancingMySQL)}.
+     * Nicht erreichbare Replikate werden ausgesondert ({@link DatasourceSettingsMySQL#replicaEjection(int, long, TimeUnit)}).
+     *
+     * Replikate können den Primärserver nur verzögert abbilden; wo ein Lesezugriff eigene Schreibzugriffe sehen muss,
+     * siehe {@link #readFromPrimary(Supplier)}.
+     *
+     * Beispiel:
+     *   new DatasourceManagerMySQL(primary, List.of(replica1, replica2), new DatasourceSettingsMySQL()
+     *       .replicaLoadBalancing(LoadBalancingMySQL.LEAST_IN_FLIGHT))
+     */
+    public DatasourceManagerMySQL(DatasourceMySQL primary, List<DatasourceMySQL> replicas, DatasourceSettingsMySQL settings) {
+        if (replicas == null)
+            throw new IllegalArgumentException("replicas cannot be null");
+        this.info = primary;
+        this.settings = settings;
+        this.connectionPool = new ConnectionPoolMySQL(primary, settings);
+        this.ownsExecutor = settings.getExecutor() == null;
+        this.executor = ownsExecutor ? createExecutor(settings, 1 + replicas.size()) : settings.getExecutor();
+        this.metrics = new MetricsMySQL(connectionPool);
+        this.taskExecutor = metrics.instrument(executor);
+        this.circuitBreaker = new CircuitBreakerMySQL(settings.getCircuitBreakerThreshold(), settings.getCircuitBreakerOpenMillis(),
+                metrics::recordCircuitState);
+        metrics.attach(circuitBreaker);
+        this.primary = new DatabaseNodeMySQL(primary.describe(), connectionPool, circuitBreaker);
+        this.replicas = new ReplicaSetMySQL(replicas, settings, metrics);
+        metrics.attach(this.replicas);
+        this.admissionController = new AdmissionControllerMySQL(taskExecutor, settings.getMaxConcurrentOperations(),
+                settings.getMaxQueuedOperations(), TimeUnit.MILLISECONDS.toNanos(settings.getAdmissionTimeoutMillis()), metrics);
+        metrics.attach(admissionController);
+        if (settings.isJmx())
+            metrics.registerMBean(info);
+        this.updateBatcher = settings.isUpdateBatching()
+                ? new UpdateBatcherMySQL(this, settings.getUpdateBatchSize(), settings.getUpdateBatchWindowMillis())
+                : null;
         this.tables = new ArrayList<>();
+        this.schemaCache = new TableSchemaCache(this, taskExecutor, settings.getSchemaCacheFile());
     }
 
     /**
-     * Öffnet eine neue Datenbankverbindung.
+     * Erzeugt den Executor passend zum {@link ExecutorModeMySQL}, im festen Modus mit einem Thread je Verbindung
+     * aller {@code servers} Pools.
      */
-    private Connection openConnection() {
-        try {
-            return DriverManager.getConnection(info.getUrl(), info.getUser(), info.getPassword());
-        } catch (SQLException exception) {
-            throw new DatabaseException("Failed to create a database connection.", exception);
+    private static ExecutorService createExecutor(DatasourceSettingsMySQL settings, int servers) {
+        if (settings.getExecutorMode() == ExecutorModeMySQL.VIRTUAL) {
+            try {
+                // Per Reflection, damit die Bibliothek weiterhin mit Java 17 gebaut werden kann.
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException exception) {
+                LOGGER.log(Level.INFO, "Virtual threads are not available on this JVM, falling back to a fixed thread pool.");
+            }
         }
+        return Executors.newFixedThreadPool(settings.getMaximumPoolSize() * servers);
     }
 
     /**
-     * Holt eine Verbindung aus dem Pool.
+     * Führt eine Operation sicher mit mehrfachen Versuchen aus.
+     *
+     * @param operation Die Datenbankoperation, die ausgeführt werden soll.
      */
-    private Connection getConnection() throws InterruptedException {
-        return connectionPool.take();
+    private void runSecureOperation(String query, DatabaseOperationMySQL operation) {
+        runPooledOperation(query, false, pooled -> operation.executeOperation(pooled.getConnection()));
     }
 
     /**
-     * Gibt eine Verbindung zurück in den Pool.
+     * Wie {@link #runSecureOperation(String, DatabaseOperationMySQL)}, gibt der Operation aber Zugriff auf
+     * die gepoolte Verbindung und deren Statement-Cache. Dauer, Wartezeit auf den Pool und Wiederholungen
+     * werden unter dem SQL-Text in den {@link MetricsMySQL} erfasst.
+     *
+     * @param replica ob die Operation auf einem Replikat ausgeführt werden darf
      */
-    private void releaseConnection(Connection connection) {
-        connectionPool.add(connection);
+    private void runPooledOperation(String query, boolean replica, PooledOperation operation) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            runPooledAttempts(query, replica, operation);
+            success = true;
+        } finally {
+            metrics.recordQuery(query, System.nanoTime() - start, success);
+        }
     }
 
     /**
-     * Führt eine Operation sicher mit mehrfachen Versuchen aus.
-     *
-     * @param operation Die Datenbankoperation, die ausgeführt werden soll.
+     * Führt die Operation aus und wiederholt sie nur bei Fehlern, die laut {@link SqlErrorKindMySQL} vorübergehend sind,
+     * jeweils nach einer zufälligen, exponentiell wachsenden Pause. Nur nach Verbindungsfehlern wird die Verbindung
+     * verworfen; den Ersatz öffnet der Pool im Hintergrund. Lesezugriffe wählen bei jedem Versuch neu ein Replikat.
      */
-    private void runSecureOperation(DatabaseOperationMySQL operation) {
-        for (int i = 1; i <= MAX_ATTEMPTS; i++) {
-            Connection connection = null;
+    private void runPooledAttempts(String query, boolean replica, PooledOperation operation) {
+        int maxAttempts = settings.getMaxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            DatabaseNodeMySQL node = acquireNode(replica);
+            ConnectionPoolMySQL pool = node.getPool();
+            CircuitBreakerMySQL breaker = node.getCircuitBreaker();
+            PooledConnectionMySQL pooled = null;
             try {
-                connection = getConnection();
-                operation.executeOperation(connection);
-                releaseConnection(connection);
+                pooled = borrow(pool);
+                operation.execute(pooled);
+                pool.release(pooled);
+                breaker.record(null);
                 return;
             } catch (SQLException | InterruptedException exception) {
-                LOGGER.log(Level.WARNING, "MySQL operation failed at attempt " + i + " of " + MAX_ATTEMPTS + " with " + exception.getClass().getSimpleName(), exception);
-                if (connection != null) {
-                    try {
-                        connection.close();
-                    } catch (SQLException e) {
-                        LOGGER.log(Level.SEVERE, "Error closing connection.", e);
-                    }
-                    releaseConnection(openConnection());
+                breaker.record(exception);
+                SqlErrorKindMySQL kind = SqlErrorKindMySQL.classify(exception);
+                if (pooled != null) {
+                    if (kind == SqlErrorKindMySQL.CONNECTION)
+                        pool.invalidate(pooled);
+                    else
+                        pool.release(pooled);
+                }
+                metrics.recordRetry(query, attempt, exception);
+                if (kind == SqlErrorKindMySQL.INTERRUPTED) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException("MySQL operation was interrupted.", exception);
+                }
+                if (!kind.isRetryable() || attempt >= maxAttempts)
+                    throw new DatabaseException("MySQL operation failed at attempt " + attempt + " of " + maxAttempts + " (" + kind + ").", exception);
+                long backoff = backoffMillis(settings.getInitialRetryBackoffMillis(), settings.getMaxRetryBackoffMillis(), attempt);
+                LOGGER.log(Level.WARNING, "MySQL operation failed at attempt " + attempt + " of " + maxAttempts + " (" + kind
+                        + "), retrying in " + backoff + "ms", exception);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException("MySQL operation was interrupted.", exception);
                 }
+            } catch (RuntimeException exception) {
+                breaker.record(exception);
+                if (pooled != null)
+                    pool.release(pooled);
+                throw exception;
             }
         }
-        throw new DatabaseException("MySQL operation failed in all " + MAX_ATTEMPTS + " attempts.");
+    }
+
+    /**
+     * Für Lesezugriffe ein verfügbares Replikat, sonst und wenn alle ausgesondert sind der Primärserver;
+     * jeweils beim Circuit Breaker des Servers reserviert.
+     */
+    private DatabaseNodeMySQL acquireNode(boolean replica) {
+        if (replica) {
+            DatabaseNodeMySQL node = replicas.acquire();
+            if (node != null)
+                return node;
+        }
+        circuitBreaker.acquire();
+        return primary;
+    }
+
+    private PooledConnectionMySQL borrow(ConnectionPoolMySQL pool) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            return pool.borrow();
+        } finally {
+            metrics.recordPoolWait(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Startet eine Operation über die Zulassungskontrolle in der Priorität von {@link #withLane(LaneMySQL, Supplier)}
+     * bzw. in {@code defaultLane}.
+     */
+    private <T> CompletableFuture<T> submit(LaneMySQL defaultLane, Supplier<T> operation) {
+        return admissionController.submit(lane(defaultLane), operation);
+    }
+
+    private static LaneMySQL lane(LaneMySQL defaultLane) {
+        LaneMySQL lane = CURRENT_LANE.get();
+        return lane != null ? lane : defaultLane;
+    }
+
+    /**
+     * Startet alle Operationen, die {@code operations} auf dem aktuellen Thread anstößt, in der angegebenen Priorität
+     * statt in ihrer Standardpriorität (Abfragen, Updates und Transaktionen {@link LaneMySQL#INTERACTIVE},
+     * Streaming und Batches {@link LaneMySQL#BULK}). Wirkt nur mit
+     * {@link DatasourceSettingsMySQL#admissionControl(int, int, long, TimeUnit)}.
+     *
+     * Beispiel:
+     *   manager.withLane(LaneMySQL.BACKGROUND, () -> manager.executeUpdate("DELETE FROM sessions WHERE expires < ?", now))
+     */
+    public <T> T withLane(LaneMySQL lane, Supplier<T> operations) {
+        LaneMySQL previous = CURRENT_LANE.get();
+        CURRENT_LANE.set(lane);
+        try {
+            return operations.get();
+        } finally {
+            if (previous == null)
+                CURRENT_LANE.remove();
+            else
+                CURRENT_LANE.set(previous);
+        }
+    }
+
+    /**
+     * Schickt alle Lesezugriffe, die {@code operations} auf dem aktuellen Thread startet, an den Primärserver statt an
+     * die Replikate, z. B. um direkt nach einem Update die eigene Änderung zu lesen. Ohne Replikate wirkungslos.
+     * Wie bei {@link #withLane(LaneMySQL, Supplier)} zählen nur Aufrufe, die {@code operations} selbst startet, nicht
+     * solche in späteren Callbacks.
+     *
+     * Beispiel:
+     *   manager.executeUpdate("UPDATE konto SET stand = ? WHERE id = ?", stand, id).join();
+     *   manager.readFromPrimary(() -> new SelectBuilder(manager, "konto").where("id", id).execute())
+     */
+    public <T> T readFromPrimary(Supplier<T> operations) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return operations.get();
+        } finally {
+            if (previous == null)
+                PRIMARY_READS.remove();
+        }
+    }
+
+    /**
+     * Ob ein Lesezugriff, der jetzt auf diesem Thread gestartet wird, an ein Replikat gehen darf.
+     */
+    private boolean readsFromReplicas() {
+        return !replicas.isEmpty() && PRIMARY_READS.get() == null;
     }
 
     /**
@@ -115,6 +305,61 @@ public class DatasourceManagerMySQL {
         return String.format("An error occurred while executing the query '%s' with parameters '%s'", query, builder);
     }
 
+    /**
+     * Liefert aktuelle Kennzahlen des Verbindungspools, z. B. Wartezeiten und aktive Verbindungen.
+     */
+    public PoolStatisticsMySQL getPoolStatistics() {
+        return connectionPool.statistics();
+    }
+
+    /**
+     * Liefert Treffer und Fehlgriffe der Statement-Caches aller Verbindungen.
+     */
+    public StatementCacheStatisticsMySQL getStatementCacheStatistics() {
+        return connectionPool.statementCacheStatistics();
+    }
+
+    public DatasourceSettingsMySQL getSettings() {
+        return settings;
+    }
+
+    /**
+     * Die ermittelten Spalten aller Tabellen dieses Managers.
+     */
+    public TableSchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
+    /**
+     * Latenzen, Pool- und Cache-Kennzahlen dieses Managers, z. B. um einen {@link MetricsListenerMySQL} anzumelden.
+     */
+    public MetricsMySQL getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Zustand des Circuit Breakers, siehe {@link DatasourceSettingsMySQL#circuitBreaker(int, long, TimeUnit)}.
+     */
+    public CircuitBreakerMySQL getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Zustand je Replikat; {@link CircuitBreakerMySQL.State#OPEN} bedeutet ausgesondert.
+     */
+    public Map<String, CircuitBreakerMySQL.State> getReplicaStates() {
+        return replicas.states();
+    }
+
+    /**
+     * Kennzahlen der Verbindungspools der Replikate.
+     */
+    public Map<String, PoolStatisticsMySQL> getReplicaPoolStatistics() {
+        return replicas.statistics();
+    }
+
+
+
     public TableBuilder createTable(String name) {
         return new TableBuilder(this, name);
     }
@@ -130,95 +375,426 @@ public class DatasourceManagerMySQL {
     }
 
     /**
-     * Führt eine Abfrage asynchron aus.
+     * Führt eine Abfrage asynchron auf dem Primärserver aus.
      */
     public CompletableFuture<DatabaseResultMySQL> executeQuery(String query, Object... values) {
+        return query(query, false, values);
+    }
+
+    /**
+     * Führt eine Abfrage asynchron auf einem Replikat aus, sofern welche konfiguriert und verfügbar sind und der
+     * Aufruf nicht in {@link #readFromPrimary(Supplier)} liegt, sonst auf dem Primärserver. Das Ergebnis kann
+     * Schreibzugriffe der letzten Momente noch nicht enthalten.
+     */
+    public CompletableFuture<DatabaseResultMySQL> executeReadQuery(String query, Object... values) {
+        return query(query, readsFromReplicas(), values);
+    }
+
+    private CompletableFuture<DatabaseResultMySQL> query(String query, boolean replica, Object... values) {
         if (values == null)
             throw new IllegalArgumentException("The values array cannot be null");
-        return CompletableFuture.supplyAsync(() -> {
+        return submit(LaneMySQL.INTERACTIVE, () -> {
             final DatabaseResultMySQL[] resultHolder = new DatabaseResultMySQL[1];
             try {
-                runSecureOperation(connection -> {
+                runPooledOperation(query, replica, pooled -> {
                     // Hier kein try-with-resources für PreparedStatement und ResultSet!
-                    PreparedStatement statement = connection.prepareStatement(query);
-                    setStatementParameters(statement, values);
-                    ResultSet resultSet = statement.executeQuery();
-                    // Übergebe beide Ressourcen an DatabaseResultMySQL
-                    resultHolder[0] = new DatabaseResultMySQL(resultSet, statement);
+                    StatementCacheMySQL statementCache = pooled.getStatementCache();
+                    PreparedStatement statement = statementCache.prepare(query);
+                    try {
+                        setStatementParameters(statement, values);
+                        ResultSet resultSet = statement.executeQuery();
+                        // Das Statement geht erst beim Schließen des Ergebnisses an den Cache zurück. Bis dahin
+                        // schließt der Pool die bereits zurückgegebene Verbindung nicht.
+                        pooled.openResult();
+                        AtomicBoolean closed = new AtomicBoolean();
+                        resultHolder[0] = new DatabaseResultMySQL(resultSet, statement, () -> {
+                            if (closed.compareAndSet(false, true)) {
+                                statementCache.release(statement);
+                                pooled.closeResult();
+                            }
+                        });
+                    } catch (SQLException | RuntimeException exception) {
+                        statementCache.release(statement);
+                        throw exception;
+                    }
                 });
             } catch (Exception exception) {
                 throw new CompletionException(getErrorMessage(query, values), exception);
             }
             return resultHolder[0];
-        }, executor);
+        });
     }
 
 
+    /**
+     * Führt eine Abfrage aus und wandelt alle Zeilen in Records bzw. POJOs um. Das Ergebnis wird geschlossen.
+     */
+    public <T> CompletableFuture<List<T>> queryList(Class<T> type, String query, Object... values) {
+        return executeQuery(query, values).thenApply(result -> {
+            try (result) {
+                return result.mapAll(type);
+            }
+        });
+    }
+
+    /**
+     * Führt eine Abfrage aus, deren Zeilen vom Server gestreamt statt vollständig im Speicher gepuffert werden.
+     * Die Verbindung bleibt bis zum Schließen des Ergebnisses belegt und wird erst dann an den Pool zurückgegeben,
+     * deshalb muss das Ergebnis immer geschlossen werden. Streaming-Abfragen werden nicht wiederholt.
+     */
+    public CompletableFuture<DatabaseResultMySQL> executeStreamingQuery(String query, Object... values) {
+        return streamingQuery(query, false, values);
+    }
+
+    /**
+     * Wie {@link #executeStreamingQuery(String, Object...)}, aber wie {@link #executeReadQuery(String, Object...)}
+     * bevorzugt auf einem Replikat.
+     */
+    public CompletableFuture<DatabaseResultMySQL> executeStreamingReadQuery(String query, Object... values) {
+        return streamingQuery(query, readsFromReplicas(), values);
+    }
+
+    private CompletableFuture<DatabaseResultMySQL> streamingQuery(String query, boolean replica, Object... values) {
+        if (values == null)
+            throw new IllegalArgumentException("The values array cannot be null");
+        // Die Verbindung bleibt bis zum Schließen des Ergebnisses belegt, ebenso der Platz in der Admission.
+        return admissionController.submitHolding(lane(LaneMySQL.BULK), releaseSlot -> {
+            long start = System.nanoTime();
+            DatabaseNodeMySQL node = acquireNode(replica);
+            ConnectionPoolMySQL pool = node.getPool();
+            CircuitBreakerMySQL breaker = node.getCircuitBreaker();
+            PooledConnectionMySQL pooled = null;
+            PreparedStatement statement = null;
+            try {
+                pooled = borrow(pool);
+                statement = pooled.getConnection().prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(settings.getStreamingFetchSize());
+                setStatementParameters(statement, values);
+                ResultSet resultSet = statement.executeQuery();
+                PooledConnectionMySQL pinned = pooled;
+                PreparedStatement pinnedStatement = statement;
+                // Erfasst wird die Zeit bis zur ersten Zeile, das Lesen bestimmt der Aufrufer.
+                metrics.recordQuery(query, System.nanoTime() - start, true);
+                breaker.record(null);
+                return new DatabaseResultMySQL(resultSet, statement, () -> {
+                    try {
+                        pinnedStatement.close();
+                        pool.release(pinned);
+                    } catch (SQLException exception) {
+                        pool.invalidate(pinned);
+                    } finally {
+                        releaseSlot.run();
+                    }
+                });
+            } catch (Exception exception) {
+                if (statement != null) {
+                    try {
+                        statement.close();
+                    } catch (SQLException ignored) {
+                    }
+                }
+                // Wie in runPooledAttempts wird die Verbindung nur nach Verbindungsfehlern verworfen.
+                if (pooled != null) {
+                    if (SqlErrorKindMySQL.classify(exception) == SqlErrorKindMySQL.CONNECTION)
+                        pool.invalidate(pooled);
+                    else
+                        pool.release(pooled);
+                }
+                metrics.recordQuery(query, System.nanoTime() - start, false);
+                breaker.record(exception);
+                if (exception instanceof InterruptedException)
+                    Thread.currentThread().interrupt();
+                throw new CompletionException(getErrorMessage(query, values), exception);
+            }
+        });
+    }
+
+    /**
+     * Veröffentlicht die Zeilen einer Streaming-Abfrage mit Backpressure: Es werden nur so viele Zeilen
+     * gelesen, wie der Subscriber anfordert. Beim Abbruch oder Ende wird die Verbindung freigegeben.
+     */
+    public <T> Flow.Publisher<T> publishQuery(String query, RowMapperMySQL<T> mapper, Object... values) {
+        if (values == null)
+            throw new IllegalArgumentException("The values array cannot be null");
+        return new QueryPublisherMySQL<>(this, taskExecutor, query, values, mapper);
+    }
+
     /**
      * Führt ein Update asynchron aus.
+     * Ist das Bündeln aktiviert, werden parametrisierte Updates gesammelt und als Batch ausgeführt; die Updates
+     * und Batches einer Tabelle laufen dann in Aufrufreihenfolge, siehe {@link DatasourceSettingsMySQL#updateBatching(int, long, TimeUnit)}.
      */
     public CompletableFuture<Void> executeUpdate(String query, Object... values) {
         if (values == null)
             throw new IllegalArgumentException("The values array cannot be null");
-        return CompletableFuture.runAsync(() -> {
+        LaneMySQL lane = lane(LaneMySQL.INTERACTIVE);
+        if (updateBatcher == null)
+            return runUpdate(query, values, lane);
+        if (values.length > 0)
+            return updateBatcher.submit(query, values, lane);
+        return updateBatcher.enqueue(query, () -> runUpdate(query, values, lane));
+    }
+
+    CompletableFuture<Void> runUpdate(String query, Object[] values, LaneMySQL lane) {
+        return admissionController.submit(lane, () -> {
             try {
-                runSecureOperation(connection -> {
-                    try (PreparedStatement statement = connection.prepareStatement(query)) {
+                runPooledOperation(query, false, pooled -> {
+                    StatementCacheMySQL statementCache = pooled.getStatementCache();
+                    PreparedStatement statement = statementCache.prepare(query);
+                    try {
                         setStatementParameters(statement, values);
                         statement.executeUpdate();
+                    } finally {
+                        statementCache.release(statement);
                     }
                 });
             } catch (Exception exception) {
                 throw new CompletionException(getErrorMessage(query, values), exception);
             }
-        }, executor);
+            return null;
+        });
+    }
+
+    /**
+     * Führt dasselbe Statement für mehrere Parametersätze als JDBC-Batch auf einer Verbindung aus.
+     * Schlagen einzelne Einträge fehl, enthält das Ergebnis an deren Position {@link Statement#EXECUTE_FAILED}.
+     *
+     * @return die Update-Counts in der Reihenfolge der Parametersätze
+     */
+    public CompletableFuture<int[]> executeBatch(String query, List<Object[]> values) {
+        if (values == null)
+            throw new IllegalArgumentException("The values list cannot be null");
+        LaneMySQL lane = lane(LaneMySQL.BULK);
+        if (updateBatcher != null)
+            return updateBatcher.enqueue(query, () -> runBatch(query, values, lane));
+        return runBatch(query, values, lane);
+    }
+
+    CompletableFuture<int[]> runBatch(String query, List<Object[]> values, LaneMySQL lane) {
+        return admissionController.submit(lane, () -> {
+            final int[][] countsHolder = new int[1][];
+            try {
+                runPooledOperation(query, false, pooled -> {
+                    StatementCacheMySQL statementCache = pooled.getStatementCache();
+                    PreparedStatement statement = statementCache.prepare(query);
+                    try {
+                        for (Object[] row : values) {
+                            setStatementParameters(statement, row);
+                            statement.addBatch();
+                        }
+                        countsHolder[0] = statement.executeBatch();
+                    } catch (BatchUpdateException exception) {
+                        // Einzelne Einträge sind fehlgeschlagen, die Verbindung selbst ist in Ordnung.
+                        LOGGER.log(Level.WARNING, "Batch for query '" + query + "' partially failed.", exception);
+                        countsHolder[0] = fillFailedCounts(exception.getUpdateCounts(), values.size());
+                    } finally {
+                        statementCache.release(statement);
+                    }
+                });
+            } catch (Exception exception) {
+                throw new CompletionException("An error occurred while executing the batch '" + query
+                        + "' with " + values.size() + " parameter sets", exception);
+            }
+            return countsHolder[0];
+        });
+    }
+
+    private static int[] fillFailedCounts(int[] counts, int size) {
+        int[] result = new int[size];
+        Arrays.fill(result, Statement.EXECUTE_FAILED);
+        if (counts != null)
+            System.arraycopy(counts, 0, result, 0, Math.min(counts.length, size));
+        return result;
     }
 
     /**
-     * Führt mehrere Operationen in einer Transaktion aus.
+     * Führt mehrere Operationen in einer Transaktion auf einer Verbindung aus dem Pool aus und blockiert bis zum Commit.
+     * Bei Deadlocks und Lock-Wait-Timeouts wird die Transaktion wie bei {@link #executeTransactionAsync(TransactionMySQL)}
+     * wiederholt.
      *
      * @param operations Eine Operation, die mehrere Datenbankzugriffe kapselt.
      */
     public void executeTransaction(DatabaseOperationMySQL operations) {
-        Connection connection = null;
+        TransactionOptionsMySQL options = new TransactionOptionsMySQL();
+        TransactionMySQL<Void> transaction = connection -> {
+            try {
+                operations.executeOperation(connection);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("The transaction was interrupted.", exception);
+            }
+            return null;
+        };
+        long start = System.nanoTime();
+        boolean success = false;
         try {
-            connection = openConnection();
-            connection.setAutoCommit(false);
-            operations.executeOperation(connection);
-            connection.commit();
-        } catch (Exception exception) {
-            if (connection != null) {
+            for (int attempt = 1; ; attempt++) {
                 try {
-                    connection.rollback();
-                } catch (SQLException e) {
-                    LOGGER.log(Level.SEVERE, "Rollback failed.", e);
+                    runTransactionAttempt(options, transaction);
+                    success = true;
+                    return;
+                } catch (Exception exception) {
+                    if (attempt >= options.getMaxAttempts() || SqlErrorKindMySQL.classify(exception) != SqlErrorKindMySQL.LOCK_CONFLICT)
+                        throw new DatabaseException("Transaction failed.", exception);
+                    metrics.recordRetry(TRANSACTION_QUERY, attempt, exception);
+                    try {
+                        Thread.sleep(backoffMillis(options.getInitialBackoffMillis(), options.getMaxBackoffMillis(), attempt));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw new DatabaseException("Transaction failed.", exception);
+                    }
                 }
             }
-            throw new DatabaseException("Transaction failed.", exception);
         } finally {
-            if (connection != null) {
-                try {
-                    connection.setAutoCommit(true);
-                    connection.close();
-                } catch (SQLException e) {
-                    LOGGER.log(Level.SEVERE, "Error closing connection after transaction.", e);
-                }
+            metrics.recordQuery(TRANSACTION_QUERY, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Führt eine Transaktion asynchron auf einer Verbindung aus dem Pool aus.
+     *
+     * @see #executeTransactionAsync(TransactionOptionsMySQL, TransactionMySQL)
+     */
+    public <T> CompletableFuture<T> executeTransactionAsync(TransactionMySQL<T> transaction) {
+        return executeTransactionAsync(new TransactionOptionsMySQL(), transaction);
+    }
+
+    /**
+     * Führt eine Transaktion asynchron auf einer Verbindung aus dem Pool aus. Scheitert sie an einem Deadlock,
+     * einem Lock-Wait-Timeout oder einem Serialisierungsfehler, wird sie zurückgerollt und nach einer zufälligen,
+     * exponentiell wachsenden Pause erneut ausgeführt; die Verbindung ist während der Pause wieder frei.
+     * Andere Fehler führen sofort zum Rollback und zu einer {@link DatabaseException}.
+     *
+     * Beispiel:
+     *   manager.executeTransactionAsync(new TransactionOptionsMySQL().isolation(IsolationLevelMySQL.READ_COMMITTED), connection -> {
+     *       try (PreparedStatement statement = connection.prepareStatement("UPDATE konto SET stand = stand - ? WHERE id = ?")) {
+     *           ...
+     *       }
+     *       return null;
+     *   });
+     */
+    public <T> CompletableFuture<T> executeTransactionAsync(TransactionOptionsMySQL options, TransactionMySQL<T> transaction) {
+        if (options == null || transaction == null)
+            throw new IllegalArgumentException("options and transaction cannot be null");
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        result.whenComplete((value, failure) -> metrics.recordQuery(TRANSACTION_QUERY, System.nanoTime() - start, failure == null));
+        attemptTransaction(options, transaction, 1, lane(LaneMySQL.INTERACTIVE), result);
+        return result;
+    }
+
+    private <T> void attemptTransaction(TransactionOptionsMySQL options, TransactionMySQL<T> transaction, int attempt,
+                                        LaneMySQL lane, CompletableFuture<T> result) {
+        submit(lane, () -> {
+            try {
+                return runTransactionAttempt(options, transaction);
+            } catch (SQLException | InterruptedException exception) {
+                if (exception instanceof InterruptedException)
+                    Thread.currentThread().interrupt();
+                throw new CompletionException(exception);
+            }
+        }).whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable exception = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (attempt < options.getMaxAttempts() && SqlErrorKindMySQL.classify(exception) == SqlErrorKindMySQL.LOCK_CONFLICT) {
+                metrics.recordRetry(TRANSACTION_QUERY, attempt, exception);
+                LOGGER.log(Level.FINE, "Transaction attempt " + attempt + " hit a lock conflict and is retried.", exception);
+                long backoff = backoffMillis(options.getInitialBackoffMillis(), options.getMaxBackoffMillis(), attempt);
+                // Während der Pause sind weder Thread noch Verbindung belegt.
+                CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS)
+                        .execute(() -> attemptTransaction(options, transaction, attempt + 1, lane, result));
+                return;
+            }
+            if (exception instanceof DatabaseOverloadedException)
+                result.completeExceptionally(exception);
+            else
+                result.completeExceptionally(new DatabaseException("Transaction failed after " + attempt + " attempt(s).", exception));
+        });
+    }
+
+    /**
+     * Ein einzelner Versuch: Verbindung ausleihen, Transaktion ausführen und committen bzw. zurückrollen.
+     * Die Verbindung wird mit Auto-Commit, Isolationsstufe und Read-Only wie zuvor an den Pool zurückgegeben;
+     * lässt sich das nicht sicherstellen, wird sie verworfen.
+     */
+    private <T> T runTransactionAttempt(TransactionOptionsMySQL options, TransactionMySQL<T> transaction) throws SQLException, InterruptedException {
+        circuitBreaker.acquire();
+        PooledConnectionMySQL pooled;
+        try {
+            pooled = borrow(connectionPool);
+        } catch (SQLException | InterruptedException | RuntimeException exception) {
+            circuitBreaker.record(exception);
+            throw exception;
+        }
+        Connection connection = pooled.getConnection();
+        boolean reusable = true;
+        int previousIsolation = -1;
+        try {
+            if (options.getIsolation() != IsolationLevelMySQL.DEFAULT) {
+                previousIsolation = connection.getTransactionIsolation();
+                connection.setTransactionIsolation(options.getIsolation().getJdbcLevel());
+            }
+            if (options.isReadOnly())
+                connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+            T result = transaction.execute(connection);
+            connection.commit();
+            circuitBreaker.record(null);
+            return result;
+        } catch (Throwable exception) {
+            circuitBreaker.record(exception);
+            if (SqlErrorKindMySQL.classify(exception) == SqlErrorKindMySQL.CONNECTION)
+                reusable = false;
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackException) {
+                exception.addSuppressed(rollbackException);
+                reusable = false;
             }
+            throw exception;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+                if (options.isReadOnly())
+                    connection.setReadOnly(false);
+                if (previousIsolation != -1)
+                    connection.setTransactionIsolation(previousIsolation);
+            } catch (SQLException exception) {
+                reusable = false;
+            }
+            if (reusable)
+                connectionPool.release(pooled);
+            else
+                connectionPool.invalidate(pooled);
         }
     }
 
+    /**
+     * Exponentielles Backoff mit vollem Jitter: zufällig zwischen 0 und der verdoppelten Obergrenze.
+     */
+    private static long backoffMillis(long initialMillis, long maxMillis, int attempt) {
+        long ceiling = Math.min(maxMillis, initialMillis << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
     /**
      * Schließt alle Verbindungen und den Executor.
      */
     public void shutdown() {
-        try {
-            for (Connection connection : connectionPool) {
-                connection.close();
-            }
-            connectionPool.clear();
+        if (updateBatcher != null)
+            updateBatcher.shutdown();
+        connectionPool.close();
+        replicas.close();
+        metrics.unregisterMBean();
+        if (ownsExecutor)
             executor.shutdown();
-        } catch (SQLException exception) {
-            throw new DatabaseException("Error while closing database connections during shutdown.", exception);
-        }
+    }
+
+    @FunctionalInterface
+    private interface PooledOperation {
+        void execute(PooledConnectionMySQL pooled) throws SQLException, InterruptedException;
     }
 }
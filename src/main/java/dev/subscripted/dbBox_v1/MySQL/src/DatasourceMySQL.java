@@ -7,6 +7,7 @@ public class DatasourceMySQL {
     private final String database;
     private final String user;
     private final String password;
+    private final String url;
 
     public DatasourceMySQL(String host, int port, String database, String user, String password) {
         this.host = host;
@@ -14,9 +15,25 @@ public class DatasourceMySQL {
         this.database = database;
         this.user = user;
         this.password = password;
+        this.url = null;
+    }
+
+    /**
+     * Verwendet eine vollständige JDBC-URL, z. B. mit zusätzlichen Treiberparametern
+     * oder für eine eingebettete Ersatzdatenbank in Benchmarks.
+     */
+    public DatasourceMySQL(String url, String user, String password) {
+        this.host = null;
+        this.port = -1;
+        this.database = null;
+        this.user = user;
+        this.password = password;
+        this.url = url;
     }
 
     public String getUrl() {
+        if (url != null)
+            return url;
         return "jdbc:mysql://" + host + ":" + port + "/" + database;
     }
 
@@ -40,4 +57,24 @@ public class DatasourceMySQL {
         return password;
     }
 
+    /**
+     * Kurzer Name für Logs und JMX, z. B. {@code shop@db1:3306}. Enthält nie Zugangsdaten: Von einer direkt
+     * übergebenen URL bleiben nur Host, Port und Datenbank.
+     */
+    String describe() {
+        if (host != null)
+            return database + "@" + host + ":" + port;
+        // Parameter wie ?password=... und user:password@ vor dem Host entfallen.
+        String address = url.split("[?;]", 2)[0];
+        int authority = address.indexOf("//");
+        if (authority >= 0) {
+            int path = address.indexOf('/', authority + 2);
+            int end = path < 0 ? address.length() : path;
+            int credentials = address.lastIndexOf('@', end - 1);
+            if (credentials > authority)
+                address = address.substring(0, authority + 2) + address.substring(credentials + 1);
+        }
+        return address;
+    }
+
 }
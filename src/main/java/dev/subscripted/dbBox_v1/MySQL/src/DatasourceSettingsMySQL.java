@@ -0,0 +1,406 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Einstellungen für einen {@link DatasourceManagerMySQL}.
+ * Alle Setter geben die Instanz zurück, damit sie verkettet werden können.
+ */
+public class DatasourceSettingsMySQL {
+
+    private int minimumIdle = 2;
+    private int maximumPoolSize = 10;
+    private long connectionTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+    private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+    private long maxLifetimeMillis = TimeUnit.MINUTES.toMillis(30);
+    private boolean validateOnBorrow = true;
+    private long validationBypassMillis = 500;
+    private int validationTimeoutSeconds = 5;
+    private long leakDetectionThresholdMillis = 0;
+    private long housekeepingPeriodMillis = TimeUnit.SECONDS.toMillis(30);
+    private ExecutorModeMySQL executorMode = ExecutorModeMySQL.FIXED;
+    private ExecutorService executor;
+    private int statementCacheSize = 64;
+    private boolean serverSidePreparedStatements = false;
+    private int updateBatchSize = 0;
+    private long updateBatchWindowMillis = 5;
+    private int streamingFetchSize = Integer.MIN_VALUE;
+    private Path schemaCacheFile;
+    private boolean jmx = false;
+    private int maxAttempts = 3;
+    private long initialRetryBackoffMillis = 50;
+    private long maxRetryBackoffMillis = 2_000;
+    private int circuitBreakerThreshold = 5;
+    private long circuitBreakerOpenMillis = TimeUnit.SECONDS.toMillis(5);
+    private int maxConcurrentOperations = 0;
+    private int maxQueuedOperations = 0;
+    private long admissionTimeoutMillis = 0;
+    private LoadBalancingMySQL replicaLoadBalancing = LoadBalancingMySQL.ROUND_ROBIN;
+    private int replicaEjectionThreshold = 3;
+    private long replicaEjectionMillis = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Anzahl der Verbindungen, die der Pool mindestens offen hält.
+     */
+    public DatasourceSettingsMySQL minimumIdle(int minimumIdle) {
+        if (minimumIdle < 0)
+            throw new IllegalArgumentException("minimumIdle cannot be negative");
+        this.minimumIdle = minimumIdle;
+        return this;
+    }
+
+    /**
+     * Obergrenze für gleichzeitig offene Verbindungen.
+     */
+    public DatasourceSettingsMySQL maximumPoolSize(int maximumPoolSize) {
+        if (maximumPoolSize < 1)
+            throw new IllegalArgumentException("maximumPoolSize must be at least 1");
+        this.maximumPoolSize = maximumPoolSize;
+        return this;
+    }
+
+    /**
+     * Wie lange ein Aufrufer maximal auf eine freie Verbindung wartet.
+     */
+    public DatasourceSettingsMySQL connectionTimeout(long timeout, TimeUnit unit) {
+        this.connectionTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * Nach dieser Zeit ohne Nutzung werden Verbindungen oberhalb von {@code minimumIdle} geschlossen.
+     * 0 deaktiviert das Entfernen.
+     */
+    public DatasourceSettingsMySQL idleTimeout(long timeout, TimeUnit unit) {
+        this.idleTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * Maximale Lebensdauer einer Verbindung, danach wird sie ersetzt. 0 deaktiviert die Grenze.
+     */
+    public DatasourceSettingsMySQL maxLifetime(long lifetime, TimeUnit unit) {
+        this.maxLifetimeMillis = unit.toMillis(lifetime);
+        return this;
+    }
+
+    /**
+     * Prüft Verbindungen vor der Herausgabe mit {@link java.sql.Connection#isValid(int)}.
+     */
+    public DatasourceSettingsMySQL validateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+        return this;
+    }
+
+    /**
+     * Verbindungen, die innerhalb dieses Zeitraums zuletzt benutzt wurden, werden nicht erneut geprüft.
+     */
+    public DatasourceSettingsMySQL validationBypass(long bypass, TimeUnit unit) {
+        this.validationBypassMillis = unit.toMillis(bypass);
+        return this;
+    }
+
+    public DatasourceSettingsMySQL validationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * Meldet Verbindungen, die länger als der Schwellwert ausgeliehen sind. 0 deaktiviert die Erkennung.
+     */
+    public DatasourceSettingsMySQL leakDetectionThreshold(long threshold, TimeUnit unit) {
+        this.leakDetectionThresholdMillis = unit.toMillis(threshold);
+        return this;
+    }
+
+    public DatasourceSettingsMySQL housekeepingPeriod(long period, TimeUnit unit) {
+        if (period <= 0)
+            throw new IllegalArgumentException("housekeepingPeriod must be positive");
+        this.housekeepingPeriodMillis = unit.toMillis(period);
+        return this;
+    }
+
+    /**
+     * Wählt die Ausführungsstrategie für asynchrone Operationen, standardmäßig {@link ExecutorModeMySQL#FIXED}.
+     */
+    public DatasourceSettingsMySQL executorMode(ExecutorModeMySQL executorMode) {
+        this.executorMode = executorMode;
+        return this;
+    }
+
+    /**
+     * Verwendet einen eigenen Executor statt {@link #executorMode(ExecutorModeMySQL)}.
+     * Der Executor wird beim Herunterfahren des Managers nicht beendet.
+     */
+    public DatasourceSettingsMySQL executor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Anzahl der {@link java.sql.PreparedStatement}s, die pro Verbindung nach SQL-Text gecacht werden.
+     * 0 deaktiviert den Cache.
+     */
+    public DatasourceSettingsMySQL statementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0)
+            throw new IllegalArgumentException("statementCacheSize cannot be negative");
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
+    /**
+     * Lässt MySQL die Statements serverseitig vorbereiten ({@code useServerPrepStmts}), sodass
+     * gecachte Statements beim erneuten Ausführen nicht mehr geparst werden müssen.
+     */
+    public DatasourceSettingsMySQL serverSidePreparedStatements(boolean serverSidePreparedStatements) {
+        this.serverSidePreparedStatements = serverSidePreparedStatements;
+        return this;
+    }
+
+    /**
+     * Aktiviert das Bündeln von {@link DatasourceManagerMySQL#executeUpdate(String, Object...)}-Aufrufen:
+     * Updates mit gleichem SQL-Text werden bis zu {@code maxBatchSize} Stück bzw. bis zum Ablauf des
+     * Zeitfensters gesammelt und als ein JDBC-Batch ausgeführt. 0 deaktiviert das Bündeln.
+     *
+     * Die Reihenfolge der Schreibzugriffe bleibt je Tabelle erhalten: Ein Update mit anderem SQL-Text auf derselben
+     * Tabelle schließt deren offenen Batch, und ihre Batches, Updates ohne Parameter sowie
+     * {@link DatasourceManagerMySQL#executeBatch(String, java.util.List)} laufen nacheinander. Verschiedene Tabellen
+     * werden unabhängig voneinander und parallel geschrieben. Lässt eine Zeile den Batch als Ganzes scheitern, wie
+     * bei zusammengefassten INSERTs mit doppeltem Schlüssel, werden die Zeilen einzeln wiederholt.
+     * Lesezugriffe warten nicht auf gesammelte Updates; sie sehen ein Update erst, wenn dessen Future abgeschlossen ist.
+     */
+    public DatasourceSettingsMySQL updateBatching(int maxBatchSize, long window, TimeUnit unit) {
+        if (maxBatchSize < 0)
+            throw new IllegalArgumentException("maxBatchSize cannot be negative");
+        this.updateBatchSize = maxBatchSize;
+        this.updateBatchWindowMillis = unit.toMillis(window);
+        return this;
+    }
+
+    /**
+     * Fetch-Size für {@link DatasourceManagerMySQL#executeStreamingQuery(String, Object...)}.
+     * {@link Integer#MIN_VALUE} lässt Connector/J Zeile für Zeile streamen; ein positiver Wert nutzt
+     * Cursor-Fetch in Blöcken und erfordert {@code useCursorFetch=true} in der URL.
+     */
+    public DatasourceSettingsMySQL streamingFetchSize(int streamingFetchSize) {
+        this.streamingFetchSize = streamingFetchSize;
+        return this;
+    }
+
+    /**
+     * Legt die ermittelten Tabellenspalten in dieser Datei ab, damit sie nach einem Neustart
+     * ohne Abfrage zur Verfügung stehen. {@code null} deaktiviert das Speichern.
+     */
+    public DatasourceSettingsMySQL schemaCacheFile(Path schemaCacheFile) {
+        this.schemaCacheFile = schemaCacheFile;
+        return this;
+    }
+
+    /**
+     * Registriert die {@link MetricsMySQL} des Managers als MXBean unter
+     * {@code dev.subscripted.dbBox:type=DatasourceManagerMySQL}. Beim Shutdown wird sie wieder entfernt.
+     */
+    public DatasourceSettingsMySQL jmx(boolean jmx) {
+        this.jmx = jmx;
+        return this;
+    }
+
+    /**
+     * Wie oft eine Operation nach Verbindungsfehlern, Deadlocks oder Lock-Wait-Timeouts insgesamt ausgeführt wird.
+     * Vor jeder Wiederholung wird zufällig bis zu einer sich verdoppelnden Obergrenze gewartet, beginnend bei
+     * {@code initialBackoff} und höchstens {@code maxBackoff}. Andere Fehler, z. B. Syntax- oder Constraint-Fehler,
+     * werden nicht wiederholt.
+     */
+    public DatasourceSettingsMySQL retries(int maxAttempts, long initialBackoff, long maxBackoff, TimeUnit unit) {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        if (initialBackoff < 0 || maxBackoff < initialBackoff)
+            throw new IllegalArgumentException("backoff requires 0 <= initial <= max");
+        this.maxAttempts = maxAttempts;
+        this.initialRetryBackoffMillis = unit.toMillis(initialBackoff);
+        this.maxRetryBackoffMillis = unit.toMillis(maxBackoff);
+        return this;
+    }
+
+    /**
+     * Nach {@code failureThreshold} aufeinanderfolgenden Verbindungsfehlern schlagen Operationen für
+     * {@code openDuration} sofort mit {@link dev.subscripted.dbBox_v1.MySQL.exception.DatabaseUnavailableException}
+     * fehl, statt die Datenbank weiter zu belasten. Danach prüft eine einzelne Operation, ob sie wieder erreichbar ist.
+     * 0 deaktiviert den Circuit Breaker.
+     */
+    public DatasourceSettingsMySQL circuitBreaker(int failureThreshold, long openDuration, TimeUnit unit) {
+        if (failureThreshold < 0 || openDuration < 0)
+            throw new IllegalArgumentException("failureThreshold and openDuration cannot be negative");
+        this.circuitBreakerThreshold = failureThreshold;
+        this.circuitBreakerOpenMillis = unit.toMillis(openDuration);
+        return this;
+    }
+
+    /**
+     * Begrenzt die gleichzeitig laufenden asynchronen Operationen auf {@code maxConcurrent}. Bis zu {@code maxQueued}
+     * weitere warten, nach Priorität ({@link LaneMySQL}) geordnet; darüber hinaus und nach {@code queueTimeout}
+     * Wartezeit schlägt das Future mit {@link dev.subscripted.dbBox_v1.MySQL.exception.DatabaseOverloadedException}
+     * fehl. Ein {@code queueTimeout} von 0 wartet unbegrenzt, {@code maxConcurrent} von 0 deaktiviert die Begrenzung.
+     *
+     * Beispiel:
+     *   settings.admissionControl(20, 200, 500, TimeUnit.MILLISECONDS)
+     */
+    public DatasourceSettingsMySQL admissionControl(int maxConcurrent, int maxQueued, long queueTimeout, TimeUnit unit) {
+        if (maxConcurrent < 0 || maxQueued < 0 || queueTimeout < 0)
+            throw new IllegalArgumentException("admission control limits cannot be negative");
+        this.maxConcurrentOperations = maxConcurrent;
+        this.maxQueuedOperations = maxQueued;
+        this.admissionTimeoutMillis = unit.toMillis(queueTimeout);
+        return this;
+    }
+
+    /**
+     * Wie Lesezugriffe auf die Replikate verteilt werden, siehe
+     * {@link DatasourceManagerMySQL#DatasourceManagerMySQL(DatasourceMySQL, java.util.List, DatasourceSettingsMySQL)}.
+     */
+    public DatasourceSettingsMySQL replicaLoadBalancing(LoadBalancingMySQL replicaLoadBalancing) {
+        if (replicaLoadBalancing == null)
+            throw new IllegalArgumentException("replicaLoadBalancing cannot be null");
+        this.replicaLoadBalancing = replicaLoadBalancing;
+        return this;
+    }
+
+    /**
+     * Ein Replikat, bei dem {@code failureThreshold} Lesezugriffe in Folge an Verbindungsfehlern scheitern, erhält für
+     * {@code duration} keine Lesezugriffe mehr; danach prüft ein einzelner Zugriff, ob es wieder erreichbar ist.
+     * Solange kein Replikat verfügbar ist, liest der Primärserver. 0 deaktiviert das Aussondern.
+     */
+    public DatasourceSettingsMySQL replicaEjection(int failureThreshold, long duration, TimeUnit unit) {
+        if (failureThreshold < 0 || duration < 0)
+            throw new IllegalArgumentException("failureThreshold and duration cannot be negative");
+        this.replicaEjectionThreshold = failureThreshold;
+        this.replicaEjectionMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    public int getMinimumIdle() {
+        return Math.min(minimumIdle, maximumPoolSize);
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public long getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long getMaxLifetimeMillis() {
+        return maxLifetimeMillis;
+    }
+
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    public long getValidationBypassMillis() {
+        return validationBypassMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    public long getHousekeepingPeriodMillis() {
+        return housekeepingPeriodMillis;
+    }
+
+    public ExecutorModeMySQL getExecutorMode() {
+        return executorMode;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public boolean isServerSidePreparedStatements() {
+        return serverSidePreparedStatements;
+    }
+
+    public boolean isUpdateBatching() {
+        return updateBatchSize > 1;
+    }
+
+    public int getUpdateBatchSize() {
+        return updateBatchSize;
+    }
+
+    public long getUpdateBatchWindowMillis() {
+        return updateBatchWindowMillis;
+    }
+
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+
+    public Path getSchemaCacheFile() {
+        return schemaCacheFile;
+    }
+
+    public boolean isJmx() {
+        return jmx;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialRetryBackoffMillis() {
+        return initialRetryBackoffMillis;
+    }
+
+    public long getMaxRetryBackoffMillis() {
+        return maxRetryBackoffMillis;
+    }
+
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    public long getCircuitBreakerOpenMillis() {
+        return circuitBreakerOpenMillis;
+    }
+
+    public int getMaxConcurrentOperations() {
+        return maxConcurrentOperations;
+    }
+
+    public int getMaxQueuedOperations() {
+        return maxQueuedOperations;
+    }
+
+    public long getAdmissionTimeoutMillis() {
+        return admissionTimeoutMillis;
+    }
+
+    public LoadBalancingMySQL getReplicaLoadBalancing() {
+        return replicaLoadBalancing;
+    }
+
+    public int getReplicaEjectionThreshold() {
+        return replicaEjectionThreshold;
+    }
+
+    public long getReplicaEjectionMillis() {
+        return replicaEjectionMillis;
+    }
+}
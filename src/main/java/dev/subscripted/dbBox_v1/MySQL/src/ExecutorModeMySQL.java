@@ -0,0 +1,21 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Legt fest, auf welchen Threads {@link DatasourceManagerMySQL} asynchrone Operationen ausführt.
+ */
+public enum ExecutorModeMySQL {
+
+    /**
+     * Ein fester Pool aus Plattform-Threads mit {@code maximumPoolSize} Threads.
+     */
+    FIXED,
+
+    /**
+     * Ein virtueller Thread pro Operation. Die Datenbank-Parallelität wird weiterhin durch den
+     * Verbindungspool begrenzt. Auf JVMs ohne virtuelle Threads (vor Java 21) wird {@link #FIXED} verwendet.
+     *
+     * Erst ab mysql-connector-j 9 sinnvoll: Ältere Treiber führen ihre Socket-Zugriffe in {@code synchronized}-Blöcken
+     * aus, die den Träger-Thread festhalten; die Parallelität wäre dann auf die Anzahl der Prozessorkerne begrenzt.
+     */
+    VIRTUAL
+}
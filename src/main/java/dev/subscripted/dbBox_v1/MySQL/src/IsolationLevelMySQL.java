@@ -0,0 +1,26 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.sql.Connection;
+
+/**
+ * Isolationsstufen einer Transaktion. {@link #DEFAULT} übernimmt die Stufe der Verbindung,
+ * bei MySQL/InnoDB also REPEATABLE READ.
+ */
+public enum IsolationLevelMySQL {
+
+    DEFAULT(-1),
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    private final int jdbcLevel;
+
+    IsolationLevelMySQL(int jdbcLevel) {
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    int getJdbcLevel() {
+        return jdbcLevel;
+    }
+}
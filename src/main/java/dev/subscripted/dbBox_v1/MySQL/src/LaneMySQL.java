@@ -0,0 +1,26 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Prioritätsstufen der Zulassungskontrolle. Ist die Parallelität ausgeschöpft, werden wartende Operationen
+ * streng nach Stufe gestartet, innerhalb einer Stufe in Ankunftsreihenfolge.
+ *
+ * @see DatasourceSettingsMySQL#admissionControl(int, int, long, java.util.concurrent.TimeUnit)
+ * @see DatasourceManagerMySQL#withLane(LaneMySQL, java.util.function.Supplier)
+ */
+public enum LaneMySQL {
+
+    /**
+     * Abfragen, auf die ein Aufrufer wartet, z. B. Punktlesezugriffe, Updates und Transaktionen.
+     */
+    INTERACTIVE,
+
+    /**
+     * Große Lesezugriffe wie Streaming-Abfragen, Scans, Preloading und JDBC-Batches.
+     */
+    BULK,
+
+    /**
+     * Hintergrundarbeit wie das Zurückschreiben geänderter Cache-Einträge.
+     */
+    BACKGROUND
+}
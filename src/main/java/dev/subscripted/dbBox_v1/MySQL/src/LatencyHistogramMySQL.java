@@ -0,0 +1,94 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-freies Latenz-Histogramm mit logarithmischen Buckets: Jede Zweierpotenz ist in 8 Buckets geteilt,
+ * Perzentile sind also auf etwa 12 % genau. Das Erfassen kostet ein paar atomare Inkremente und keine
+ * Allokation; der Speicherbedarf ist unabhängig von der Anzahl der Messwerte fest (knapp 4 KB).
+ */
+class LatencyHistogramMySQL {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos, boolean success) {
+        if (nanos < 0)
+            nanos = 0;
+        buckets.incrementAndGet(index(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        if (!success)
+            failures.increment();
+        if (nanos > maxNanos.get())
+            maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Momentaufnahme; gleichzeitig erfasste Werte können teilweise enthalten sein.
+     */
+    LatencyStatisticsMySQL snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long max = maxNanos.get();
+        return new LatencyStatisticsMySQL(total, failures.sum(), total == 0 ? 0 : totalNanos.sum() / total,
+                percentile(counts, total, 0.5, max), percentile(counts, total, 0.99, max),
+                percentile(counts, total, 0.999, max), max);
+    }
+
+    /**
+     * Obergrenze des Buckets, in den das Perzentil fällt, höchstens aber der größte gemessene Wert.
+     */
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0)
+            return 0;
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Größter Wert, der in den Bucket fällt.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Momentaufnahme eines Latenz-Histogramms, z. B. für eine Abfrageform oder das Warten auf den Pool.
+ * Alle Zeiten in Nanosekunden.
+ */
+public class LatencyStatisticsMySQL {
+
+    private final long count;
+    private final long failures;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    LatencyStatisticsMySQL(long count, long failures, long meanNanos, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.count = count;
+        this.failures = failures;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Anzahl der fehlgeschlagenen Ausführungen, die in den Werten enthalten sind.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStatisticsMySQL{count=" + count + ", failures=" + failures + ", meanNanos=" + meanNanos
+                + ", p50Nanos=" + p50Nanos + ", p99Nanos=" + p99Nanos + ", p999Nanos=" + p999Nanos
+                + ", maxNanos=" + maxNanos + "}";
+    }
+}
@@ -0,0 +1,20 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Verteilung der Lesezugriffe auf die Replikate.
+ *
+ * @see DatasourceSettingsMySQL#replicaLoadBalancing(LoadBalancingMySQL)
+ */
+public enum LoadBalancingMySQL {
+
+    /**
+     * Die Replikate werden reihum verwendet.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Das Replikat mit den wenigsten ausgeliehenen Verbindungen und wartenden Threads wird verwendet. Gleicht
+     * unterschiedlich schnelle Replikate aus, z. B. wenn eines gerade aufholt.
+     */
+    LEAST_IN_FLIGHT
+}
@@ -0,0 +1,48 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Empfängt Messwerte eines {@link DatasourceManagerMySQL}, z. B. um sie an Micrometer oder Prometheus
+ * weiterzureichen. Die Methoden laufen synchron auf dem ausführenden Thread und dürfen nicht blockieren.
+ *
+ * @see MetricsMySQL#addListener(MetricsListenerMySQL)
+ */
+public interface MetricsListenerMySQL {
+
+    /**
+     * Eine Abfrage wurde beendet. Die Dauer umfasst das Warten auf eine Verbindung und alle Wiederholungen.
+     *
+     * @param sql der SQL-Text mit Platzhaltern, also die Form der Abfrage
+     */
+    default void onQuery(String sql, long nanos, boolean success) {
+    }
+
+    /**
+     * Es wurde eine Verbindung aus dem Pool geholt.
+     */
+    default void onPoolWait(long nanos) {
+    }
+
+    /**
+     * Ein Versuch ist fehlgeschlagen und wird wiederholt bzw. war der letzte.
+     */
+    default void onRetry(String sql, int attempt, Throwable cause) {
+    }
+
+    /**
+     * Eine Operation wurde nach {@code nanos} Wartezeit gestartet oder von der Zulassungskontrolle abgewiesen.
+     */
+    default void onAdmission(LaneMySQL lane, long nanos, boolean admitted) {
+    }
+
+    /**
+     * Der Circuit Breaker hat seinen Zustand gewechselt, z. B. von CLOSED zu OPEN nach wiederholten Verbindungsfehlern.
+     */
+    default void onCircuitStateChange(CircuitBreakerMySQL.State previous, CircuitBreakerMySQL.State current) {
+    }
+
+    /**
+     * Ein Replikat wurde ausgesondert (OPEN) oder wieder aufgenommen (CLOSED).
+     */
+    default void onReplicaStateChange(String replica, CircuitBreakerMySQL.State previous, CircuitBreakerMySQL.State current) {
+    }
+}
@@ -0,0 +1,300 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.table.TableCache;
+import dev.subscripted.dbBox_v1.MySQL.table.TableCacheStatistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Kennzahlen eines {@link DatasourceManagerMySQL}: Latenz-Histogramme je Abfrageform, Wartezeit auf den Pool,
+ * Wiederholungen und Fehler, die Warteschlange des Executors sowie die Caches aller {@link dev.subscripted.dbBox_v1.MySQL.table.Table}s.
+ * Eine Abfrage wird lock-frei und ohne Allokation erfasst, die Kennzahlen können also im Betrieb aktiv bleiben.
+ *
+ * Abrufbar direkt, über JMX ({@link DatasourceSettingsMySQL#jmx(boolean)}) oder als Ereignisse über
+ * einen {@link MetricsListenerMySQL}.
+ */
+public class MetricsMySQL implements MetricsMySQLMXBean {
+
+    /**
+     * Weitere Abfrageformen, z. B. durch im SQL eingebettete Werte, werden unter {@link #OTHER_QUERIES} zusammengefasst.
+     */
+    public static final int MAX_QUERY_SHAPES = 1_000;
+    public static final String OTHER_QUERIES = "<other>";
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsMySQL.class.getName());
+
+    private final ConnectionPoolMySQL connectionPool;
+    private final ConcurrentHashMap<String, LatencyHistogramMySQL> queries = new ConcurrentHashMap<>();
+    private final LatencyHistogramMySQL poolWait = new LatencyHistogramMySQL();
+    private final LongAdder retries = new LongAdder();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final EnumMap<LaneMySQL, LatencyHistogramMySQL> queueWait = new EnumMap<>(LaneMySQL.class);
+    private final LongAdder rejectedOperations = new LongAdder();
+    private final ConcurrentHashMap<String, TableCache> tableCaches = new ConcurrentHashMap<>();
+    private final List<MetricsListenerMySQL> listeners = new CopyOnWriteArrayList<>();
+    private ObjectName objectName;
+    private CircuitBreakerMySQL circuitBreaker;
+    private AdmissionControllerMySQL admissionController;
+    private ReplicaSetMySQL replicas;
+
+    MetricsMySQL(ConnectionPoolMySQL connectionPool) {
+        this.connectionPool = connectionPool;
+        for (LaneMySQL lane : LaneMySQL.values()) {
+            queueWait.put(lane, new LatencyHistogramMySQL());
+        }
+    }
+
+    public void addListener(MetricsListenerMySQL listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MetricsListenerMySQL listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Nimmt den Cache einer Tabelle in die Kennzahlen auf. Eine spätere Tabelle gleichen Namens ersetzt ihn.
+     */
+    public void registerTableCache(String table, TableCache cache) {
+        tableCaches.put(table, cache);
+    }
+
+    @Override
+    public long getQueryCount() {
+        long count = 0;
+        for (LatencyHistogramMySQL histogram : queries.values()) {
+            count += histogram.getCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getFailureCount() {
+        long failures = 0;
+        for (LatencyHistogramMySQL histogram : queries.values()) {
+            failures += histogram.getFailures();
+        }
+        return failures;
+    }
+
+    @Override
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return connectionPool.statistics().getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return connectionPool.statistics().getIdleConnections();
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return connectionPool.statistics().getTotalConnections();
+    }
+
+    @Override
+    public int getWaitingThreads() {
+        return connectionPool.statistics().getWaitingThreads();
+    }
+
+    @Override
+    public String getCircuitState() {
+        return circuitBreaker == null ? CircuitBreakerMySQL.State.CLOSED.name() : circuitBreaker.getState().name();
+    }
+
+    @Override
+    public long getCircuitRejectedCount() {
+        return circuitBreaker == null ? 0 : circuitBreaker.getRejectedCount();
+    }
+
+    @Override
+    public Map<String, String> getReplicaStates() {
+        Map<String, String> states = new LinkedHashMap<>();
+        if (replicas != null)
+            replicas.states().forEach((replica, state) -> states.put(replica, state.name()));
+        return states;
+    }
+
+    @Override
+    public int getExecutorQueueDepth() {
+        return queuedTasks.get();
+    }
+
+    @Override
+    public int getAdmissionQueueDepth() {
+        return admissionController == null ? 0 : admissionController.getQueued();
+    }
+
+    @Override
+    public long getRejectedOperations() {
+        return rejectedOperations.sum();
+    }
+
+    @Override
+    public Map<String, LatencyStatisticsMySQL> getQueueWait() {
+        Map<String, LatencyStatisticsMySQL> snapshot = new TreeMap<>();
+        queueWait.forEach((lane, histogram) -> snapshot.put(lane.name(), histogram.snapshot()));
+        return snapshot;
+    }
+
+    public LatencyStatisticsMySQL getQueueWait(LaneMySQL lane) {
+        return queueWait.get(lane).snapshot();
+    }
+
+    @Override
+    public LatencyStatisticsMySQL getPoolWait() {
+        return poolWait.snapshot();
+    }
+
+    @Override
+    public Map<String, LatencyStatisticsMySQL> getQueries() {
+        Map<String, LatencyStatisticsMySQL> snapshot = new TreeMap<>();
+        queries.forEach((sql, histogram) -> snapshot.put(sql, histogram.snapshot()));
+        return snapshot;
+    }
+
+    public LatencyStatisticsMySQL getQuery(String sql) {
+        LatencyHistogramMySQL histogram = queries.get(sql);
+        return histogram == null ? null : histogram.snapshot();
+    }
+
+    @Override
+    public Map<String, TableCacheStatistics> getTableCaches() {
+        Map<String, TableCacheStatistics> snapshot = new TreeMap<>();
+        tableCaches.forEach((table, cache) -> snapshot.put(table, cache.statistics()));
+        return snapshot;
+    }
+
+    void recordQuery(String sql, long nanos, boolean success) {
+        LatencyHistogramMySQL histogram = queries.get(sql);
+        if (histogram == null) {
+            String shape = queries.size() < MAX_QUERY_SHAPES ? sql : OTHER_QUERIES;
+            histogram = queries.computeIfAbsent(shape, ignored -> new LatencyHistogramMySQL());
+        }
+        histogram.record(nanos, success);
+        for (MetricsListenerMySQL listener : listeners) {
+            listener.onQuery(sql, nanos, success);
+        }
+    }
+
+    void recordPoolWait(long nanos) {
+        poolWait.record(nanos, true);
+        for (MetricsListenerMySQL listener : listeners) {
+            listener.onPoolWait(nanos);
+        }
+    }
+
+    void recordRetry(String sql, int attempt, Throwable cause) {
+        retries.increment();
+        for (MetricsListenerMySQL listener : listeners) {
+            listener.onRetry(sql, attempt, cause);
+        }
+    }
+
+    void attach(CircuitBreakerMySQL circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    void attach(AdmissionControllerMySQL admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    void attach(ReplicaSetMySQL replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * Eine Operation wurde gestartet bzw. abgewiesen, nachdem sie {@code nanos} gewartet hat.
+     */
+    void recordAdmission(LaneMySQL lane, long nanos, boolean admitted) {
+        if (admitted)
+            queueWait.get(lane).record(nanos, true);
+        else
+            rejectedOperations.increment();
+        for (MetricsListenerMySQL listener : listeners) {
+            listener.onAdmission(lane, nanos, admitted);
+        }
+    }
+
+    void recordCircuitState(CircuitBreakerMySQL.State previous, CircuitBreakerMySQL.State current) {
+        LOGGER.log(current == CircuitBreakerMySQL.State.OPEN ? Level.WARNING : Level.INFO,
+                "Circuit breaker changed from " + previous + " to " + current + ".");
+        for (MetricsListenerMySQL listener : listeners) {
+            listener.onCircuitStateChange(previous, current);
+        }
+    }
+
+    void recordReplicaState(String replica, CircuitBreakerMySQL.State previous, CircuitBreakerMySQL.State current) {
+        LOGGER.log(current == CircuitBreakerMySQL.State.OPEN ? Level.WARNING : Level.INFO,
+                current == CircuitBreakerMySQL.State.OPEN ? "Replica " + replica + " ejected."
+                        : "Replica " + replica + " changed from " + previous + " to " + current + ".");
+        for (MetricsListenerMySQL listener : listeners) {
+            listener.onReplicaStateChange(replica, previous, current);
+        }
+    }
+
+    /**
+     * Zählt Aufgaben, die auf einen Thread des Executors warten.
+     */
+    Executor instrument(Executor executor) {
+        return task -> {
+            queuedTasks.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    queuedTasks.decrementAndGet();
+                    task.run();
+                });
+            } catch (RuntimeException exception) {
+                queuedTasks.decrementAndGet();
+                throw exception;
+            }
+        };
+    }
+
+    synchronized void registerMBean(DatasourceMySQL info) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String base = "dev.subscripted.dbBox:type=DatasourceManagerMySQL,name=" + ObjectName.quote(info.describe());
+        try {
+            ObjectName name = new ObjectName(base);
+            // Mehrere Manager für dieselbe Datenbank erhalten fortlaufende Instanznummern.
+            for (int instance = 2; server.isRegistered(name); instance++) {
+                name = new ObjectName(base + ",instance=" + instance);
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException exception) {
+            LOGGER.log(Level.WARNING, "Registering the metrics MBean failed.", exception);
+        }
+    }
+
+    synchronized void unregisterMBean() {
+        if (objectName == null)
+            return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException exception) {
+            LOGGER.log(Level.FINE, "Unregistering the metrics MBean failed.", exception);
+        }
+        objectName = null;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.table.TableCacheStatistics;
+
+import java.util.Map;
+
+/**
+ * JMX-Sicht auf {@link MetricsMySQL}, registriert mit {@link DatasourceSettingsMySQL#jmx(boolean)}.
+ */
+public interface MetricsMySQLMXBean {
+
+    long getQueryCount();
+
+    long getFailureCount();
+
+    long getRetryCount();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getTotalConnections();
+
+    int getWaitingThreads();
+
+    /**
+     * Zustand des Circuit Breakers: CLOSED, OPEN oder HALF_OPEN.
+     */
+    String getCircuitState();
+
+    long getCircuitRejectedCount();
+
+    /**
+     * Zustand je Replikat: CLOSED (verfügbar), OPEN (ausgesondert) oder HALF_OPEN.
+     */
+    Map<String, String> getReplicaStates();
+
+    /**
+     * Aufgaben, die an den Executor übergeben, aber noch nicht gestartet wurden.
+     */
+    int getExecutorQueueDepth();
+
+    /**
+     * Operationen, die in der Zulassungskontrolle auf einen freien Platz warten.
+     */
+    int getAdmissionQueueDepth();
+
+    /**
+     * Operationen, die wegen voller Warteschlange oder zu langer Wartezeit abgewiesen wurden.
+     */
+    long getRejectedOperations();
+
+    /**
+     * Wartezeit vom Aufruf bis zum Start der Operation, je {@link LaneMySQL}.
+     */
+    Map<String, LatencyStatisticsMySQL> getQueueWait();
+
+    LatencyStatisticsMySQL getPoolWait();
+
+    /**
+     * Latenzen je Abfrageform, also je SQL-Text mit Platzhaltern.
+     */
+    Map<String, LatencyStatisticsMySQL> getQueries();
+
+    Map<String, TableCacheStatistics> getTableCaches();
+}
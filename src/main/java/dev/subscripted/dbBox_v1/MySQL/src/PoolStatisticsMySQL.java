@@ -0,0 +1,100 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Momentaufnahme der Kennzahlen eines {@link ConnectionPoolMySQL}.
+ */
+public class PoolStatisticsMySQL {
+
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waitingThreads;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long createdCount;
+    private final long closedCount;
+    private final long validationFailures;
+    private final long leaksDetected;
+
+    PoolStatisticsMySQL(int totalConnections, int activeConnections, int idleConnections, int waitingThreads,
+                        long borrowCount, long timeoutCount, long totalWaitNanos, long maxWaitNanos,
+                        long createdCount, long closedCount, long validationFailures, long leaksDetected) {
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.createdCount = createdCount;
+        this.closedCount = closedCount;
+        this.validationFailures = validationFailures;
+        this.leaksDetected = leaksDetected;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * Durchschnittliche Wartezeit pro Ausleihe in Nanosekunden.
+     */
+    public double getAverageWaitNanos() {
+        return borrowCount == 0 ? 0 : (double) totalWaitNanos / borrowCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getClosedCount() {
+        return closedCount;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatisticsMySQL{total=" + totalConnections + ", active=" + activeConnections
+                + ", idle=" + idleConnections + ", waiting=" + waitingThreads + ", borrows=" + borrowCount
+                + ", timeouts=" + timeoutCount + ", avgWaitNanos=" + (long) getAverageWaitNanos()
+                + ", maxWaitNanos=" + maxWaitNanos + ", leaks=" + leaksDetected + "}";
+    }
+}
@@ -0,0 +1,114 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Eine physische Verbindung zusammen mit den Verwaltungsdaten des {@link ConnectionPoolMySQL}.
+ */
+public class PooledConnectionMySQL {
+
+    private final Connection connection;
+    private final StatementCacheMySQL statementCache;
+    private final long createdAt;
+    private volatile long lastUsedAt;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+    // Ergebnisse, die nach der Rückgabe an den Pool noch gelesen werden; geschützt durch this.
+    private int openResults;
+    private boolean retired;
+
+    PooledConnectionMySQL(Connection connection, int statementCacheSize, StatementCacheMySQL.Counters counters) {
+        this.connection = connection;
+        this.statementCache = new StatementCacheMySQL(connection, statementCacheSize, counters);
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public StatementCacheMySQL getStatementCache() {
+        return statementCache;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    Throwable getBorrowTrace() {
+        return borrowTrace;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        this.leakReported = true;
+    }
+
+    void markBorrowed(long now, Throwable trace) {
+        this.borrowedAt = now;
+        this.borrowTrace = trace;
+        this.leakReported = false;
+    }
+
+    void markReturned(long now) {
+        this.lastUsedAt = now;
+        this.borrowTrace = null;
+    }
+
+    boolean isExpired(long now, long maxLifetimeMillis) {
+        return maxLifetimeMillis > 0 && now - createdAt >= maxLifetimeMillis;
+    }
+
+    /**
+     * Ein Ergebnis auf dieser Verbindung ist noch offen, obwohl sie bereits an den Pool zurückgeht. Bis zum
+     * passenden {@link #closeResult()} wird die Verbindung nicht physisch geschlossen.
+     */
+    synchronized void openResult() {
+        openResults++;
+    }
+
+    void closeResult() {
+        boolean close;
+        synchronized (this) {
+            close = --openResults == 0 && retired;
+        }
+        if (close)
+            closeQuietly();
+    }
+
+    /**
+     * Nimmt die Verbindung aus dem Pool. Geschlossen wird sie sofort oder, falls noch Ergebnisse offen sind,
+     * beim Schließen des letzten, denn Connector/J schließt mit der Verbindung auch deren Ergebnisse.
+     */
+    void retire() {
+        boolean close;
+        synchronized (this) {
+            retired = true;
+            close = openResults == 0;
+        }
+        if (close)
+            closeQuietly();
+    }
+
+    private void closeQuietly() {
+        statementCache.close();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Veröffentlicht die Zeilen einer Streaming-Abfrage als {@link Flow.Publisher}. Zeilen werden erst gelesen,
+ * wenn der Subscriber sie per {@link Flow.Subscription#request(long)} anfordert, sodass der Cursor nie
+ * schneller läuft als der Verbraucher.
+ */
+class QueryPublisherMySQL<T> implements Flow.Publisher<T> {
+
+    private final DatasourceManagerMySQL manager;
+    private final Executor executor;
+    private final String query;
+    private final Object[] values;
+    private final RowMapperMySQL<T> mapper;
+
+    QueryPublisherMySQL(DatasourceManagerMySQL manager, Executor executor, String query, Object[] values, RowMapperMySQL<T> mapper) {
+        this.manager = manager;
+        this.executor = executor;
+        this.query = query;
+        this.values = values;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        manager.executeStreamingQuery(query, values).whenComplete((result, throwable) -> {
+            if (throwable != null)
+                subscription.fail(throwable);
+            else
+                subscription.open(result);
+        });
+    }
+
+    private final class RowSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private final AtomicReference<DatabaseResultMySQL> result = new AtomicReference<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        private RowSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                fail(new IllegalArgumentException("Subscription request must be positive, got " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void open(DatabaseResultMySQL opened) {
+            result.set(opened);
+            // Wurde bereits abgebrochen, schließt niemand mehr den Cursor und die Verbindung.
+            if (terminated.get())
+                closeResult();
+            else
+                drain();
+        }
+
+        /**
+         * Der Fehler wird erst in {@link #drainLoop()} gemeldet, damit das Ergebnis nicht geschlossen wird,
+         * während der Loop noch daraus liest.
+         */
+        private void fail(Throwable throwable) {
+            error.compareAndSet(null, throwable);
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0)
+                executor.execute(this::drainLoop);
+        }
+
+        /**
+         * Läuft immer nur in einem Thread gleichzeitig, dadurch sind next() und onNext() serialisiert.
+         */
+        private void drainLoop() {
+            int missed = 1;
+            while (true) {
+                if (terminated.get())
+                    return;
+                Throwable failure = error.get();
+                if (failure != null) {
+                    terminated.set(true);
+                    closeResult();
+                    subscriber.onError(failure);
+                    return;
+                }
+                if (cancelled) {
+                    terminated.set(true);
+                    closeResult();
+                    return;
+                }
+                DatabaseResultMySQL current = result.get();
+                if (current != null) {
+                    try {
+                        while (demand.get() > 0 && !cancelled) {
+                            if (!current.next()) {
+                                if (terminated.compareAndSet(false, true)) {
+                                    closeResult();
+                                    subscriber.onComplete();
+                                }
+                                return;
+                            }
+                            T row = mapper.map(current);
+                            demand.decrementAndGet();
+                            subscriber.onNext(row);
+                        }
+                    } catch (RuntimeException exception) {
+                        error.compareAndSet(null, exception);
+                        continue;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0)
+                    return;
+            }
+        }
+
+        private void closeResult() {
+            DatabaseResultMySQL current = result.getAndSet(null);
+            if (current != null)
+                current.close();
+        }
+    }
+}
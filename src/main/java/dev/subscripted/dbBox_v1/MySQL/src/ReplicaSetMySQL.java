@@ -0,0 +1,104 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Die Replikate eines {@link DatasourceManagerMySQL}. Jedes hat einen eigenen Pool und einen Circuit Breaker, der es
+ * nach wiederholten Verbindungsfehlern aussondert; ausgesonderte Replikate werden bei der Auswahl übersprungen.
+ */
+class ReplicaSetMySQL {
+
+    private final List<DatabaseNodeMySQL> replicas;
+    private final LoadBalancingMySQL loadBalancing;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaSetMySQL(List<DatasourceMySQL> infos, DatasourceSettingsMySQL settings, MetricsMySQL metrics) {
+        this.loadBalancing = settings.getReplicaLoadBalancing();
+        List<DatabaseNodeMySQL> replicas = new ArrayList<>(infos.size());
+        for (DatasourceMySQL info : infos) {
+            String name = info.describe();
+            // Ein beim Start nicht erreichbares Replikat verhindert den Start nicht, es wird ausgesondert.
+            ConnectionPoolMySQL pool = new ConnectionPoolMySQL(info, settings, false);
+            CircuitBreakerMySQL circuitBreaker = new CircuitBreakerMySQL(settings.getReplicaEjectionThreshold(),
+                    settings.getReplicaEjectionMillis(), (previous, current) -> metrics.recordReplicaState(name, previous, current));
+            replicas.add(new DatabaseNodeMySQL(name, pool, circuitBreaker));
+        }
+        this.replicas = List.copyOf(replicas);
+    }
+
+    boolean isEmpty() {
+        return replicas.isEmpty();
+    }
+
+    int size() {
+        return replicas.size();
+    }
+
+    /**
+     * Wählt ein verfügbares Replikat und reserviert es bei dessen Circuit Breaker; das Ergebnis des Zugriffs muss
+     * mit {@link CircuitBreakerMySQL#record(Throwable)} gemeldet werden.
+     *
+     * @return das Replikat oder {@code null}, wenn alle ausgesondert sind
+     */
+    DatabaseNodeMySQL acquire() {
+        int size = replicas.size();
+        if (size == 0)
+            return null;
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        if (loadBalancing == LoadBalancingMySQL.ROUND_ROBIN) {
+            for (int i = 0; i < size; i++) {
+                DatabaseNodeMySQL replica = replicas.get((start + i) % size);
+                if (replica.getCircuitBreaker().tryAcquire())
+                    return replica;
+            }
+            return null;
+        }
+        // Das am wenigsten belastete noch nicht geprüfte Replikat zuerst; bei Gleichstand reihum ab start.
+        boolean[] tried = new boolean[size];
+        for (int round = 0; round < size; round++) {
+            int best = -1;
+            int bestLoad = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % size;
+                if (tried[index])
+                    continue;
+                int load = replicas.get(index).getPool().inFlight();
+                if (load < bestLoad) {
+                    best = index;
+                    bestLoad = load;
+                }
+            }
+            tried[best] = true;
+            DatabaseNodeMySQL replica = replicas.get(best);
+            if (replica.getCircuitBreaker().tryAcquire())
+                return replica;
+        }
+        return null;
+    }
+
+    Map<String, CircuitBreakerMySQL.State> states() {
+        Map<String, CircuitBreakerMySQL.State> states = new LinkedHashMap<>();
+        for (DatabaseNodeMySQL replica : replicas) {
+            states.put(replica.getName(), replica.getCircuitBreaker().getState());
+        }
+        return states;
+    }
+
+    Map<String, PoolStatisticsMySQL> statistics() {
+        Map<String, PoolStatisticsMySQL> statistics = new LinkedHashMap<>();
+        for (DatabaseNodeMySQL replica : replicas) {
+            statistics.put(replica.getName(), replica.getPool().statistics());
+        }
+        return statistics;
+    }
+
+    void close() {
+        for (DatabaseNodeMySQL replica : replicas) {
+            replica.getPool().close();
+        }
+    }
+}
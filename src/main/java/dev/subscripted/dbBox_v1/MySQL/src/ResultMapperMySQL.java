@@ -0,0 +1,261 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wandelt Zeilen eines {@link DatabaseResultMySQL} in Records oder POJOs um.
+ * Konstruktoren und Setter werden einmal pro Klasse als {@link MethodHandle} aufgelöst, die Spaltenindizes
+ * einmal pro Ergebnis; pro Zeile findet keine Reflection und keine Suche nach Spaltennamen statt.
+ * Spalten werden ohne Beachtung von Groß-/Kleinschreibung und Unterstrichen zugeordnet,
+ * {@code auto_login} passt also zu {@code autoLogin}.
+ *
+ * Beispiel:
+ *   record User(int id, String password, boolean autoLogin) {}
+ *   List<User> users = result.mapAll(User.class);
+ */
+public final class ResultMapperMySQL<T> {
+
+    private static final ClassValue<ResultMapperMySQL<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ResultMapperMySQL<?> computeValue(Class<?> type) {
+            return new ResultMapperMySQL<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] propertyNames;
+    private final Class<?>[] propertyTypes;
+    // Records: kanonischer Konstruktor, POJOs: ()Object
+    private final MethodHandle constructor;
+    // Nur POJOs: (Object, Wert)void je Eigenschaft
+    private final MethodHandle[] setters;
+    // Zusammengesetzte Handles je Spaltenlayout, damit sie nicht pro Abfrage neu gebaut werden
+    private final Map<String, Bound> boundByLayout = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public static <T> ResultMapperMySQL<T> of(Class<T> type) {
+        return (ResultMapperMySQL<T>) MAPPERS.get(type);
+    }
+
+    private ResultMapperMySQL(Class<T> type) {
+        this.type = type;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                propertyNames = new String[components.length];
+                propertyTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    propertyNames[i] = normalize(components[i].getName());
+                    propertyTypes[i] = components[i].getType();
+                }
+                Constructor<T> canonical = type.getDeclaredConstructor(propertyTypes);
+                constructor = lookup.unreflectConstructor(canonical);
+                setters = null;
+            } else {
+                List<String> names = new ArrayList<>();
+                List<Class<?>> types = new ArrayList<>();
+                List<MethodHandle> handles = new ArrayList<>();
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers))
+                            continue;
+                        MethodHandle setter = findSetter(lookup, current, field);
+                        names.add(normalize(field.getName()));
+                        types.add(field.getType());
+                        handles.add(setter.asType(MethodType.methodType(void.class, Object.class, field.getType())));
+                    }
+                }
+                propertyNames = names.toArray(new String[0]);
+                propertyTypes = types.toArray(new Class<?>[0]);
+                setters = handles.toArray(new MethodHandle[0]);
+                constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            }
+        } catch (ReflectiveOperationException exception) {
+            throw new DatabaseException("Cannot create a result mapper for " + type.getName()
+                    + ": records need an accessible canonical constructor, other classes a no-arg constructor.", exception);
+        }
+    }
+
+    /**
+     * Löst die Spaltenindizes für ein konkretes Ergebnis auf. Für jedes Spaltenlayout werden die
+     * Lesezugriffe nur einmal zu einem Handle zusammengesetzt.
+     */
+    public Bound bind(DatabaseResultMySQL result) {
+        try {
+            ResultSetMetaData metaData = result.getResultSet().getMetaData();
+            String[] labels = new String[metaData.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = normalize(metaData.getColumnLabel(i + 1));
+            }
+            return boundByLayout.computeIfAbsent(String.join(",", labels), key -> compile(labels));
+        } catch (SQLException exception) {
+            throw new DatabaseException("Error while reading result metadata for " + type.getName(), exception);
+        }
+    }
+
+    /**
+     * Liest alle verbleibenden Zeilen.
+     */
+    public List<T> mapAll(DatabaseResultMySQL result) {
+        Bound bound = bind(result);
+        ResultSet resultSet = result.getResultSet();
+        List<T> rows = new ArrayList<>();
+        while (result.next()) {
+            rows.add(bound.map(resultSet));
+        }
+        return rows;
+    }
+
+    /**
+     * Ein {@link RowMapperMySQL}, der sich beim ersten Aufruf an das jeweilige Ergebnis bindet,
+     * z. B. für {@link DatabaseResultMySQL#stream(RowMapperMySQL)} oder
+     * {@link DatasourceManagerMySQL#publishQuery(String, RowMapperMySQL, Object...)}.
+     */
+    public RowMapperMySQL<T> asRowMapper() {
+        return new RowMapperMySQL<>() {
+            private ResultSet boundTo;
+            private Bound bound;
+
+            @Override
+            public T map(DatabaseResultMySQL row) {
+                if (boundTo != row.getResultSet()) {
+                    bound = bind(row);
+                    boundTo = row.getResultSet();
+                }
+                return bound.map(boundTo);
+            }
+        };
+    }
+
+    /**
+     * Ein für ein Spaltenlayout zusammengesetzter Mapper.
+     */
+    public final class Bound {
+
+        // Records: (ResultSet)Object
+        private final MethodHandle rowHandle;
+        // POJOs: (Object, ResultSet)void je zugeordneter Spalte
+        private final MethodHandle[] columnSetters;
+
+        private Bound(MethodHandle rowHandle, MethodHandle[] columnSetters) {
+            this.rowHandle = rowHandle;
+            this.columnSetters = columnSetters;
+        }
+
+        /**
+         * Wandelt die aktuelle Zeile um.
+         */
+        @SuppressWarnings("unchecked")
+        public T map(ResultSet resultSet) {
+            try {
+                if (rowHandle != null)
+                    return (T) (Object) rowHandle.invokeExact(resultSet);
+                Object instance = (Object) constructor.invokeExact();
+                for (MethodHandle setter : columnSetters) {
+                    setter.invokeExact(instance, resultSet);
+                }
+                return (T) instance;
+            } catch (SQLException exception) {
+                throw new DatabaseException("Error while mapping a row to " + type.getName(), exception);
+            } catch (Throwable throwable) {
+                throw new DatabaseException("Error while creating " + type.getName() + " from a row", throwable);
+            }
+        }
+    }
+
+    private Bound compile(String[] labels) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = labels.length - 1; i >= 0; i--) {
+            columns.put(labels[i], i + 1);
+        }
+        try {
+            if (setters == null) {
+                MethodHandle[] readers = new MethodHandle[propertyNames.length];
+                for (int i = 0; i < readers.length; i++) {
+                    Integer index = columns.get(propertyNames[i]);
+                    readers[i] = index == null
+                            ? MethodHandles.dropArguments(MethodHandles.zero(propertyTypes[i]), 0, ResultSet.class)
+                            : reader(propertyTypes[i], index);
+                }
+                // (ResultSet, ResultSet, ...)T -> (ResultSet)Object
+                MethodHandle filtered = MethodHandles.filterArguments(constructor, 0, readers);
+                MethodHandle row = MethodHandles.permuteArguments(filtered,
+                        MethodType.methodType(type, ResultSet.class), new int[readers.length]);
+                return new Bound(row.asType(MethodType.methodType(Object.class, ResultSet.class)), null);
+            }
+            List<MethodHandle> columnSetters = new ArrayList<>();
+            for (int i = 0; i < setters.length; i++) {
+                Integer index = columns.get(propertyNames[i]);
+                if (index != null)
+                    columnSetters.add(MethodHandles.filterArguments(setters[i], 1, reader(propertyTypes[i], index)));
+            }
+            return new Bound(null, columnSetters.toArray(new MethodHandle[0]));
+        } catch (ReflectiveOperationException exception) {
+            throw new DatabaseException("Cannot compile the result mapper for " + type.getName(), exception);
+        }
+    }
+
+    /**
+     * Ein Handle {@code (ResultSet)type}, das die Spalte mit dem typisierten Getter liest.
+     */
+    private static MethodHandle reader(Class<?> type, int index) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getter;
+        if (type.isPrimitive()) {
+            String name = "get" + Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+            getter = lookup.findVirtual(ResultSet.class, name, MethodType.methodType(type, int.class));
+        } else if (type == String.class) {
+            getter = lookup.findVirtual(ResultSet.class, "getString", MethodType.methodType(String.class, int.class));
+        } else if (type == BigDecimal.class) {
+            getter = lookup.findVirtual(ResultSet.class, "getBigDecimal", MethodType.methodType(BigDecimal.class, int.class));
+        } else {
+            getter = MethodHandles.insertArguments(lookup.findStatic(ResultMapperMySQL.class, "getObject",
+                    MethodType.methodType(Object.class, ResultSet.class, int.class, Class.class)), 2, type);
+        }
+        return MethodHandles.insertArguments(getter, 1, index).asType(MethodType.methodType(type, ResultSet.class));
+    }
+
+    /**
+     * Liest Wrapper-Typen wie {@link Integer} so, dass SQL-{@code NULL} zu {@code null} wird.
+     */
+    private static Object getObject(ResultSet resultSet, int index, Class<?> type) throws SQLException {
+        Object value = resultSet.getObject(index, type);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static MethodHandle findSetter(MethodHandles.Lookup lookup, Class<?> owner, Field field) throws IllegalAccessException {
+        String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            Method method = owner.getDeclaredMethod(name, field.getType());
+            return lookup.unreflect(method);
+        } catch (NoSuchMethodException exception) {
+            return lookup.unreflectSetter(field);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,9 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Wandelt die aktuelle Zeile eines {@link DatabaseResultMySQL} in ein Objekt um.
+ */
+@FunctionalInterface
+public interface RowMapperMySQL<T> {
+    T map(DatabaseResultMySQL row);
+}
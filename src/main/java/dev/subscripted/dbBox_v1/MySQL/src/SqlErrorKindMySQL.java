@@ -0,0 +1,77 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+
+/**
+ * Einordnung eines Fehlers anhand von SQLState und MySQL-Fehlercode. Entscheidet, ob eine Operation wiederholt,
+ * die Verbindung verworfen und der Fehler dem Circuit Breaker gemeldet wird.
+ */
+public enum SqlErrorKindMySQL {
+
+    /**
+     * Verbindung abgebrochen oder nicht herstellbar (SQLState 08xxx, z. B. 2006 "server has gone away").
+     */
+    CONNECTION(true),
+    /**
+     * Deadlock (1213), Lock-Wait-Timeout (1205) oder Serialisierungsfehler (40001); die Transaktion wurde zurückgerollt.
+     */
+    LOCK_CONFLICT(true),
+    /**
+     * Im Pool wurde innerhalb des Timeouts keine Verbindung frei. Eine Wiederholung würde nur erneut so lange warten.
+     */
+    POOL_EXHAUSTED(false),
+    INTERRUPTED(false),
+    /**
+     * Alle übrigen Fehler, z. B. Syntax, Constraints oder fehlende Rechte. Die Verbindung selbst ist in Ordnung.
+     */
+    PERMANENT(false);
+
+    // Too many connections, Server-Shutdown, abgebrochene bzw. beendete Verbindung, Client-Fehler von Connector/J
+    private static final Set<Integer> CONNECTION_ERROR_CODES = Set.of(1040, 1053, 1152, 1927, 2002, 2003, 2006, 2013);
+
+    private final boolean retryable;
+
+    SqlErrorKindMySQL(boolean retryable) {
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * Ordnet den ersten {@link SQLException} bzw. die erste {@link InterruptedException} in der Ursachenkette ein.
+     */
+    public static SqlErrorKindMySQL classify(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException)
+                return INTERRUPTED;
+            if (cause instanceof SQLException sqlException)
+                return classify(sqlException);
+        }
+        return PERMANENT;
+    }
+
+    private static SqlErrorKindMySQL classify(SQLException exception) {
+        if (exception instanceof ConnectionPoolMySQL.PoolTimeoutException)
+            return POOL_EXHAUSTED;
+        String state = exception.getSQLState();
+        int code = exception.getErrorCode();
+        if (exception instanceof SQLTransactionRollbackException || "40001".equals(state) || code == 1213 || code == 1205)
+            return LOCK_CONFLICT;
+        // Abgelehnte Anmeldung (28000) wird nicht wiederholt, auch wenn der Treiber sie als Verbindungsfehler meldet.
+        if (state != null && state.startsWith("28"))
+            return PERMANENT;
+        if ((state != null && state.startsWith("08")) || CONNECTION_ERROR_CODES.contains(code)
+                || exception instanceof SQLRecoverableException
+                || exception instanceof SQLTransientConnectionException
+                || exception instanceof SQLNonTransientConnectionException)
+            return CONNECTION;
+        return PERMANENT;
+    }
+}
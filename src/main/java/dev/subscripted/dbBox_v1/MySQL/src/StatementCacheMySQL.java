@@ -0,0 +1,157 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU-Cache für {@link PreparedStatement}s einer einzelnen Verbindung, Schlüssel ist der SQL-Text.
+ * Ein Statement wird beim {@link #prepare(String)} ausgecheckt und erst nach {@link #release(PreparedStatement)}
+ * wieder vergeben. Ist es noch in Benutzung, wird ein ungecachtes Statement erzeugt.
+ */
+public class StatementCacheMySQL {
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> statements;
+    private final Map<PreparedStatement, CachedStatement> checkedOut = new IdentityHashMap<>();
+    // Kein synchronized: prepareStatement kann ein Netzwerk-Roundtrip sein und würde virtuelle Threads festhalten.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    StatementCacheMySQL(Connection connection, int maxSize, Counters counters) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Liefert ein vorbereitetes Statement für den SQL-Text, nach Möglichkeit aus dem Cache.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        lock.lock();
+        try {
+            if (maxSize <= 0)
+                return connection.prepareStatement(sql);
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                counters.hits.increment();
+                cached.inUse = true;
+                checkedOut.put(cached.statement, cached);
+                return cached.statement;
+            }
+            counters.misses.increment();
+            PreparedStatement statement = connection.prepareStatement(sql);
+            if (cached != null)
+                return statement;
+            cached = new CachedStatement(statement);
+            cached.inUse = true;
+            statements.put(sql, cached);
+            checkedOut.put(statement, cached);
+            evictOverflow();
+            return statement;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gibt ein Statement zurück. Gecachte Statements bleiben offen, alle anderen werden geschlossen.
+     */
+    public void release(PreparedStatement statement) {
+        lock.lock();
+        try {
+            CachedStatement cached = checkedOut.remove(statement);
+            if (cached == null || cached.evicted) {
+                closeQuietly(statement);
+                return;
+            }
+            cached.inUse = false;
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException exception) {
+                statements.values().remove(cached);
+                closeQuietly(statement);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return statements.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schließt alle gecachten Statements, z. B. bevor die Verbindung geschlossen wird.
+     */
+    void close() {
+        lock.lock();
+        try {
+            for (CachedStatement cached : statements.values()) {
+                closeQuietly(cached.statement);
+            }
+            statements.clear();
+            checkedOut.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            iterator.remove();
+            counters.evictions.increment();
+            // Ausgecheckte Statements werden erst bei der Rückgabe geschlossen.
+            if (eldest.inUse)
+                eldest.evicted = true;
+            else
+                closeQuietly(eldest.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Gemeinsame Zähler aller Statement-Caches eines Pools.
+     */
+    static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        StatementCacheStatisticsMySQL snapshot() {
+            return new StatementCacheStatisticsMySQL(hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+/**
+ * Momentaufnahme der Treffer und Fehlgriffe aller {@link StatementCacheMySQL}s eines Pools.
+ */
+public class StatementCacheStatisticsMySQL {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    StatementCacheStatisticsMySQL(long hits, long misses, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheStatisticsMySQL{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
@@ -0,0 +1,15 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Inhalt einer Transaktion. Wird bei Deadlocks erneut ausgeführt und darf deshalb außerhalb der
+ * Datenbank keine Seiteneffekte haben, die nicht wiederholt werden dürfen.
+ *
+ * @param <T> das Ergebnis, das nach dem Commit geliefert wird
+ */
+@FunctionalInterface
+public interface TransactionMySQL<T> {
+    T execute(Connection connection) throws SQLException;
+}
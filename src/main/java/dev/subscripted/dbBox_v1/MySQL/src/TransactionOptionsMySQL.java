@@ -0,0 +1,75 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Einstellungen für {@link DatasourceManagerMySQL#executeTransactionAsync(TransactionOptionsMySQL, TransactionMySQL)}.
+ * Alle Setter geben die Instanz zurück, damit sie verkettet werden können.
+ */
+public class TransactionOptionsMySQL {
+
+    private IsolationLevelMySQL isolation = IsolationLevelMySQL.DEFAULT;
+    private boolean readOnly = false;
+    private int maxAttempts = 5;
+    private long initialBackoffMillis = 10;
+    private long maxBackoffMillis = 1_000;
+
+    public TransactionOptionsMySQL isolation(IsolationLevelMySQL isolation) {
+        if (isolation == null)
+            throw new IllegalArgumentException("isolation cannot be null");
+        this.isolation = isolation;
+        return this;
+    }
+
+    /**
+     * Kennzeichnet die Transaktion als nur lesend. InnoDB vergibt dafür keine Transaktions-ID und
+     * spart so Verwaltungsaufwand; Schreibzugriffe schlagen fehl.
+     */
+    public TransactionOptionsMySQL readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    /**
+     * Wie oft eine Transaktion nach einem Deadlock, einem Lock-Wait-Timeout oder einem
+     * Serialisierungsfehler insgesamt ausgeführt wird.
+     */
+    public TransactionOptionsMySQL maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Wartezeit vor der ersten Wiederholung; sie verdoppelt sich bis {@code max} und wird zufällig
+     * verkürzt, damit sich kollidierende Transaktionen nicht erneut gleichzeitig sperren.
+     */
+    public TransactionOptionsMySQL backoff(long initial, long max, TimeUnit unit) {
+        if (initial < 0 || max < initial)
+            throw new IllegalArgumentException("backoff requires 0 <= initial <= max");
+        this.initialBackoffMillis = unit.toMillis(initial);
+        this.maxBackoffMillis = unit.toMillis(max);
+        return this;
+    }
+
+    public IsolationLevelMySQL getIsolation() {
+        return isolation;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+}
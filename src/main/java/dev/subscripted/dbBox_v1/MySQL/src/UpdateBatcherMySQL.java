@@ -0,0 +1,197 @@
+package dev.subscripted.dbBox_v1.MySQL.src;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sammelt Updates mit identischem SQL-Text und führt sie gemeinsam als JDBC-Batch aus, sobald das Zeitfenster
+ * abläuft, die maximale Batch-Größe erreicht ist oder auf derselben Tabelle ein anderes Statement eingereiht wird.
+ *
+ * Die Reihenfolge bleibt je Tabelle erhalten: Deren Batches laufen nacheinander in Aufrufreihenfolge, ein DELETE
+ * nach einem INSERT derselben Zeile kann dieses also nicht überholen. Batches verschiedener Tabellen sind
+ * unabhängig und laufen parallel. Jeder Aufrufer erhält sein eigenes Ergebnis.
+ */
+class UpdateBatcherMySQL {
+
+    // Zieltabelle von INSERT, REPLACE, UPDATE und DELETE; andere Statements teilen sich eine Reihenfolge
+    private static final Pattern TARGET_TABLE = Pattern.compile(
+            "^\\s*(?:(?:INSERT|REPLACE)(?:\\s+(?:LOW_PRIORITY|DELAYED|HIGH_PRIORITY|IGNORE))*\\s+INTO"
+                    + "|UPDATE(?:\\s+(?:LOW_PRIORITY|IGNORE))*"
+                    + "|DELETE(?:\\s+(?:LOW_PRIORITY|QUICK|IGNORE))*\\s+FROM)\\s+([`\\w.]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final DatasourceManagerMySQL manager;
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    // Offener Batch und Ausführungsreihenfolge je Tabelle; geschützt durch this
+    private final Map<String, TableQueue> queues = new HashMap<>();
+
+    UpdateBatcherMySQL(DatasourceManagerMySQL manager, int maxBatchSize, long windowMillis) {
+        this.manager = manager;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dbBox-update-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    CompletableFuture<Void> submit(String query, Object[] values, LaneMySQL lane) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (this) {
+            TableQueue queue = queue(query);
+            PendingBatch batch = queue.current;
+            if (batch != null && (!batch.query.equals(query) || batch.lane != lane))
+                close(queue);
+            if (queue.current == null) {
+                PendingBatch opened = new PendingBatch(query, lane);
+                opened.timer = scheduler.schedule(() -> flush(queue, opened), windowMillis, TimeUnit.MILLISECONDS);
+                queue.current = opened;
+            }
+            queue.current.values.add(values);
+            queue.current.futures.add(future);
+            if (queue.current.values.size() >= maxBatchSize)
+                close(queue);
+        }
+        return future;
+    }
+
+    /**
+     * Startet einen Schreibzugriff, der nicht gebündelt wird, z. B. einen Batch aus
+     * {@link DatasourceManagerMySQL#executeBatch(String, List)}, erst nach allen bisher gesammelten Updates
+     * derselben Tabelle.
+     */
+    synchronized <T> CompletableFuture<T> enqueue(String query, Supplier<CompletableFuture<T>> operation) {
+        TableQueue queue = queue(query);
+        if (queue.current != null)
+            close(queue);
+        CompletableFuture<T> result = queue.tail.thenCompose(ignored -> operation.get());
+        queue.tail = result.handle((value, throwable) -> null);
+        return result;
+    }
+
+    /**
+     * Führt alle offenen Batches sofort aus; abgeschlossen, wenn alle bisher eingereihten Updates ausgeführt sind.
+     */
+    synchronized CompletableFuture<Void> flushAll() {
+        List<CompletableFuture<Void>> tails = new ArrayList<>(queues.size());
+        for (TableQueue queue : queues.values()) {
+            if (queue.current != null)
+                close(queue);
+            tails.add(queue.tail);
+        }
+        return CompletableFuture.allOf(tails.toArray(new CompletableFuture<?>[0]));
+    }
+
+    void shutdown() {
+        flushAll().join();
+        scheduler.shutdownNow();
+    }
+
+    private TableQueue queue(String query) {
+        Matcher matcher = TARGET_TABLE.matcher(query);
+        String table = matcher.find() ? matcher.group(1).replace("`", "").toLowerCase(Locale.ROOT) : "";
+        return queues.computeIfAbsent(table, ignored -> new TableQueue());
+    }
+
+    private void flush(TableQueue queue, PendingBatch batch) {
+        synchronized (this) {
+            if (queue.current == batch)
+                close(queue);
+        }
+    }
+
+    /**
+     * Schließt den offenen Batch der Tabelle und reiht ihn hinter die zuvor geschlossenen ein. Nur unter dem Lock aufrufen.
+     */
+    private void close(TableQueue queue) {
+        PendingBatch batch = queue.current;
+        queue.current = null;
+        batch.timer.cancel(false);
+        queue.tail = queue.tail.thenCompose(ignored -> execute(batch));
+    }
+
+    private CompletableFuture<Void> execute(PendingBatch batch) {
+        return manager.runBatch(batch.query, batch.values, batch.lane).handle((counts, throwable) -> {
+            if (throwable == null && batch.values.size() > 1 && allFailed(counts))
+                return executeSingly(batch);
+            for (int i = 0; i < batch.futures.size(); i++) {
+                CompletableFuture<Void> future = batch.futures.get(i);
+                if (throwable != null)
+                    future.completeExceptionally(throwable);
+                else if (counts[i] == Statement.EXECUTE_FAILED)
+                    future.completeExceptionally(new DatabaseException("Update failed as part of a batch of "
+                            + batch.futures.size() + " for query '" + batch.query + "'"));
+                else
+                    future.complete(null);
+            }
+            return CompletableFuture.<Void>completedFuture(null);
+        }).thenCompose(done -> done);
+    }
+
+    /**
+     * Mit {@code rewriteBatchedStatements} wird ein gebündeltes INSERT zu einem einzigen Statement, an dem eine
+     * fehlerhafte Zeile, z. B. ein doppelter Schlüssel, alle anderen scheitern lässt. Die Zeilen werden dann
+     * einzeln und in Reihenfolge wiederholt, damit nur ihre eigenen Aufrufer den Fehler erhalten.
+     */
+    private CompletableFuture<Void> executeSingly(PendingBatch batch) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < batch.values.size(); i++) {
+            Object[] values = batch.values.get(i);
+            CompletableFuture<Void> future = batch.futures.get(i);
+            chain = chain.thenCompose(ignored -> manager.runUpdate(batch.query, values, batch.lane)
+                    .handle((result, throwable) -> {
+                        if (throwable != null)
+                            future.completeExceptionally(throwable);
+                        else
+                            future.complete(null);
+                        return null;
+                    }));
+        }
+        return chain;
+    }
+
+    private static boolean allFailed(int[] counts) {
+        for (int count : counts) {
+            if (count != Statement.EXECUTE_FAILED)
+                return false;
+        }
+        return true;
+    }
+
+    private static final class TableQueue {
+        // Der offene Batch; er nimmt nur Updates mit seinem SQL-Text und seiner Lane auf
+        private PendingBatch current;
+        // Abgeschlossen, sobald alle bisher eingereihten Batches der Tabelle ausgeführt sind
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    }
+
+    private static final class PendingBatch {
+        private final String query;
+        private final LaneMySQL lane;
+        private final List<Object[]> values = new ArrayList<>();
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+
+        private PendingBatch(String query, LaneMySQL lane) {
+            this.query = query;
+            this.lane = lane;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import dev.subscripted.dbBox_v1.MySQL.builder.Condition;
+import dev.subscripted.dbBox_v1.MySQL.builder.SelectBuilder;
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.RowMapperMySQL;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Eine Tabelle, deren Zeilen per konsistentem Hashing des Identifiers auf mehrere Datenbanken verteilt sind.
+ * Jeder Shard ist eine gewöhnliche {@link Table} mit eigenem Cache auf seinem {@link DatasourceManagerMySQL}.
+ * Zugriffe mit Schlüssel ({@code get}, {@code set}, {@code update}, {@code delete}, {@code exists}) gehen an genau
+ * einen Shard, Abfragen ohne Schlüssel ({@code filter}, {@code select}, {@code scanParallel}) an alle Shards
+ * parallel, die Ergebnisse werden zusammengeführt.
+ *
+ * Die Tabelle muss auf jedem Shard mit demselben Schema existieren. Transaktionen und Abfragen über mehrere
+ * Shards hinweg, etwa Joins, werden nicht unterstützt.
+ *
+ * Beispiel:
+ *   ShardedTable users = new ShardedTable(Map.of("s1", manager1, "s2", manager2), "user", "id");
+ *   users.set("42", "name", "Alice");
+ *   users.filter(Condition.eq("land", "DE")).join()
+ */
+public class ShardedTable {
+
+    private final String name;
+    private final String identifier;
+    private final Map<String, Table> shards;
+    // Namen, deren addShard noch läuft; geschützt durch this
+    private final Set<String> addingShards = new HashSet<>();
+    // Schreibzugriffe mit Schlüssel halten die Lese-Sperre, addShard tauscht den Ring unter der Schreib-Sperre.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile TableShardRing<Table> ring;
+
+    /**
+     * @param managers die Shards; der Name bestimmt die Lage auf dem Hash-Ring und darf sich daher nicht ändern
+     */
+    public ShardedTable(Map<String, DatasourceManagerMySQL> managers, String name, String identifier) {
+        this.name = name;
+        this.identifier = identifier;
+        this.shards = new LinkedHashMap<>();
+        managers.forEach((shard, manager) -> shards.put(shard, manager.getTable(name, identifier)));
+        this.ring = new TableShardRing<>(shards);
+    }
+
+    /**
+     * Nimmt einen weiteren Shard auf. Danach gehört etwa der Anteil {@code 1 / Shards} der Schlüssel dem neuen Shard,
+     * alle anderen bleiben bei ihrem bisherigen. Zuvor werden alle Änderungen geschrieben; während des Tauschs
+     * warten {@code set}, {@code update} und {@code delete}. Die Zeilen der verschobenen Schlüssel müssen vom
+     * Aufrufer umgezogen werden, z. B. anhand von {@link #getShard(String)}.
+     */
+    public synchronized CompletableFuture<Void> addShard(String shard, DatasourceManagerMySQL manager) {
+        // Der Name wird sofort reserviert, eingefügt wird der Shard erst nach dem Flush.
+        if (shards.containsKey(shard) || !addingShards.add(shard))
+            throw new IllegalArgumentException("shard '" + shard + "' already exists");
+        // Der erste Flush läuft ohne Sperre und hält den zweiten, blockierenden kurz.
+        return flush().thenRunAsync(() -> {
+            swapLock.writeLock().lock();
+            try {
+                // Seit dem ersten Flush geänderte Zeilen schriebe invalidateAll() sonst in den alten Shard zurück.
+                flush().join();
+                synchronized (this) {
+                    shards.put(shard, manager.getTable(name, identifier));
+                    ring = new TableShardRing<>(shards);
+                    // Einträge verschobener Schlüssel würden sonst weiter aus dem alten Shard beantwortet.
+                    for (Table table : shards.values()) {
+                        table.getCache().invalidateAll();
+                    }
+                }
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }).whenComplete((ignored, throwable) -> {
+            synchronized (this) {
+                addingShards.remove(shard);
+            }
+        });
+    }
+
+    /**
+     * Name des Shards, dem der Schlüssel gehört.
+     */
+    public synchronized String getShard(String key) {
+        Table owner = shard(key);
+        for (Map.Entry<String, Table> entry : shards.entrySet()) {
+            if (entry.getValue() == owner)
+                return entry.getKey();
+        }
+        throw new IllegalStateException("no shard owns key '" + key + "'");
+    }
+
+    /**
+     * Die Tabellen der einzelnen Shards, z. B. um Cache, Load-Batching oder Preloading je Shard einzustellen.
+     */
+    public synchronized Map<String, Table> getShards() {
+        return Map.copyOf(shards);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    private Table shard(String key) {
+        return ring.get(key);
+    }
+
+    private synchronized List<Table> tables() {
+        return new ArrayList<>(shards.values());
+    }
+
+    public CompletableFuture<TableEntry> get(String key, String column) {
+        return shard(key).get(key, column);
+    }
+
+    public void set(String key, String column, Object value) {
+        swapLock.readLock().lock();
+        try {
+            shard(key).set(key, column, value);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public CompletableFuture<Void> update(String key) {
+        swapLock.readLock().lock();
+        try {
+            return shard(key).update(key);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void delete(String key) {
+        swapLock.readLock().lock();
+        try {
+            shard(key).delete(key);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public CompletableFuture<Boolean> exists(String key) {
+        return shard(key).exists(key);
+    }
+
+    public boolean isLoaded(String key) {
+        return shard(key).isLoaded(key);
+    }
+
+    /**
+     * Wie {@link Table#getAll(Collection)}: Die Schlüssel werden nach Shard gruppiert und je Shard gebündelt geladen.
+     *
+     * @return die Einträge in der Reihenfolge der übergebenen Schlüssel
+     */
+    public CompletableFuture<Map<String, TableCachedEntry>> getAll(Collection<String> keys) {
+        Map<Table, List<String>> byShard = new HashMap<>();
+        LinkedHashSet<String> ordered = new LinkedHashSet<>(keys);
+        for (String key : ordered) {
+            byShard.computeIfAbsent(shard(key), ignored -> new ArrayList<>()).add(key);
+        }
+        List<CompletableFuture<Map<String, TableCachedEntry>>> loads = new ArrayList<>();
+        byShard.forEach((table, shardKeys) -> loads.add(table.getAll(shardKeys)));
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, TableCachedEntry> loaded = new HashMap<>();
+            for (CompletableFuture<Map<String, TableCachedEntry>> load : loads) {
+                loaded.putAll(load.join());
+            }
+            Map<String, TableCachedEntry> result = new LinkedHashMap<>();
+            for (String key : ordered) {
+                result.put(key, loaded.get(key));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Schreibt die geänderten Einträge aller Shards, siehe {@link Table#flush()}.
+     */
+    public CompletableFuture<Void> flush() {
+        List<Table> tables = tables();
+        List<CompletableFuture<Void>> flushes = new ArrayList<>(tables.size());
+        for (Table table : tables) {
+            flushes.add(table.flush());
+        }
+        return CompletableFuture.allOf(flushes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    public CompletableFuture<List<Object>> filter(String column, Object value) {
+        return scatter(table -> table.filter(column, value));
+    }
+
+    /**
+     * Liefert die Identifier aller Zeilen aller Shards, auf die die Bedingung zutrifft, siehe {@link Table#filter(Condition)}.
+     */
+    public CompletableFuture<List<Object>> filter(Condition condition) {
+        return scatter(table -> table.filter(condition));
+    }
+
+    /**
+     * Führt dieselbe Abfrage auf allen Shards aus und hängt die Zeilen in Shard-Reihenfolge aneinander. Ein
+     * {@code orderBy} gilt daher nur innerhalb eines Shards, ein {@code limit} je Shard; für eine über alle Shards
+     * sortierte und begrenzte Liste siehe {@link #select(Consumer, RowMapperMySQL, Comparator, int)}.
+     * Der Mapper wird von mehreren Threads gleichzeitig aufgerufen.
+     *
+     * Beispiel:
+     *   users.select(select -> select.columns("id", "name").where("land", "DE"), row -> row.getString("name"))
+     */
+    public <T> CompletableFuture<List<T>> select(Consumer<SelectBuilder> query, RowMapperMySQL<T> mapper) {
+        return scatter(table -> {
+            SelectBuilder select = table.select();
+            query.accept(select);
+            return select.execute().thenApply(result -> map(result, mapper));
+        });
+    }
+
+    /**
+     * Wie {@link #select(Consumer, RowMapperMySQL)}, das Ergebnis ist aber über alle Shards nach {@code order}
+     * sortiert und auf {@code limit} Zeilen begrenzt (-1 für unbegrenzt). Jeder Shard liefert dafür höchstens
+     * {@code limit} Zeilen; {@code order} muss zu einem {@code orderBy} der Abfrage passen, sonst fehlen Zeilen.
+     *
+     * Beispiel:
+     *   users.select(select -> select.orderBy("punkte", true), User::from, Comparator.comparing(User::punkte).reversed(), 10)
+     */
+    public <T> CompletableFuture<List<T>> select(Consumer<SelectBuilder> query, RowMapperMySQL<T> mapper,
+                                                 Comparator<? super T> order, int limit) {
+        return select(select -> {
+            query.accept(select);
+            if (limit >= 0)
+                select.limit(limit);
+        }, mapper).thenApply(rows -> {
+            rows.sort(order);
+            return limit >= 0 && rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        });
+    }
+
+    /**
+     * Liest alle passenden Zeilen aller Shards parallel, auf jedem Shard zusätzlich in bis zu {@code partitionsPerShard}
+     * Bereiche zerlegt, siehe {@link SelectBuilder#scanParallel(String, int, RowMapperMySQL)}.
+     */
+    public <T> CompletableFuture<List<T>> scanParallel(Consumer<SelectBuilder> query, int partitionsPerShard, RowMapperMySQL<T> mapper) {
+        return scatter(table -> {
+            SelectBuilder select = table.select();
+            query.accept(select);
+            return select.scanParallel(identifier, partitionsPerShard, mapper);
+        });
+    }
+
+    /**
+     * Startet die Abfrage auf allen Shards gleichzeitig und hängt die Ergebnisse in Shard-Reihenfolge aneinander.
+     */
+    private <T> CompletableFuture<List<T>> scatter(Function<Table, CompletableFuture<List<T>>> query) {
+        List<Table> tables = tables();
+        List<CompletableFuture<List<T>>> reads = new ArrayList<>(tables.size());
+        for (Table table : tables) {
+            reads.add(query.apply(table));
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<T> merged = new ArrayList<>();
+            for (CompletableFuture<List<T>> read : reads) {
+                merged.addAll(read.join());
+            }
+            return merged;
+        });
+    }
+
+    private static <T> List<T> map(DatabaseResultMySQL result, RowMapperMySQL<T> mapper) {
+        List<T> rows = new ArrayList<>();
+        try (result) {
+            while (result.next()) {
+                T row = mapper.map(result);
+                if (row != null)
+                    rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
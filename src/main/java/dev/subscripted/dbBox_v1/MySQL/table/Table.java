@@ -1,18 +1,32 @@
 package dev.subscripted.dbBox_v1.MySQL.table;
 
+import dev.subscripted.dbBox_v1.MySQL.builder.Condition;
+import dev.subscripted.dbBox_v1.MySQL.builder.KeyRanges;
 import dev.subscripted.dbBox_v1.MySQL.builder.SelectBuilder;
 import dev.subscripted.dbBox_v1.MySQL.builder.UpdateBuilder;
 import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
 import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.LaneMySQL;
 
 
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class Table {
 
@@ -20,16 +34,47 @@ public class Table {
     private final String name;
     private final String identifier;
 
-    private final List<TableColumn> tableColumns;
-    private final Map<String, TableCachedEntry> cachedEntries;
+    private volatile List<TableColumn> tableColumns;
+    private volatile String selectColumns;
+    // Die SQL-Texte der häufigsten Zugriffe werden nur bei Schemaänderungen neu zusammengesetzt.
+    private volatile String loadQuery;
+    // Je Blockgröße ein SQL-Text, z. B. für getAll und die gebündelten Ladevorgänge
+    private final ConcurrentHashMap<Integer, BulkLoadQuery> bulkLoadQueries = new ConcurrentHashMap<>();
+    private final String existsQuery;
+    private final String deleteQuery;
+    private volatile CompletableFuture<Void> schemaReady;
+    private final TableCache cachedEntries;
+    private final ConcurrentHashMap<String, CompletableFuture<TableCachedEntry>> pendingLoads;
+    // Aus dem Cache entfernte Einträge, deren Änderungen noch nicht geschrieben sind; load liefert sie statt der Datenbank
+    private final ConcurrentHashMap<String, TableCachedEntry> pendingWrites = new ConcurrentHashMap<>();
+    private volatile int bulkChunkSize = 100;
+    private volatile TableLoadBatcher loadBatcher;
+    private volatile TableRowLayout rowLayout;
+    private volatile boolean primaryReads;
+    private ScheduledExecutorService flusher;
+
+    private static final Logger LOGGER = Logger.getLogger(Table.class.getName());
+    // Kleinere Tabellen werden nicht zerlegt, der Aufwand für die Bereichsgrenzen lohnt sich nicht.
+    private static final long PRELOAD_MIN_PARTITION_ROWS = 1_000;
 
     public Table(DatasourceManagerMySQL databaseManager, String name, String identifier) {
         this.databaseManager = databaseManager;
         this.name = name;
         this.identifier = identifier;
-        this.tableColumns = new ArrayList<>();
-        this.cachedEntries = new HashMap<>();
-        findColumns();
+        this.tableColumns = List.of();
+        this.existsQuery = "SELECT 1 FROM " + name + " WHERE " + identifier + " = ?";
+        this.deleteQuery = "DELETE FROM " + name + " WHERE " + identifier + " = ?";
+        this.cachedEntries = new TableCache();
+        this.pendingLoads = new ConcurrentHashMap<>();
+        // Verdrängte oder abgelaufene Einträge dürfen ihre Änderungen nicht verlieren.
+        this.cachedEntries.setRemovalListener((key, entry) -> {
+            if (entry.isDirty())
+                databaseManager.withLane(LaneMySQL.BACKGROUND, () -> writeBackRemoved(key, entry));
+        });
+        databaseManager.getMetrics().registerTableCache(name, cachedEntries);
+        // Schemaänderungen, z. B. nach TableBuilder.create oder dem Abgleich mit der Schema-Datei
+        databaseManager.getSchemaCache().addListener(name, this::applyColumns);
+        this.schemaReady = requestColumns();
     }
 
 
@@ -52,10 +97,12 @@ public class Table {
             throw new IllegalArgumentException("Der übergebene Tabellenname stimmt nicht mit diesem Table-Objekt überein.");
         }
         // Erstelle einen SelectBuilder, setze die Spalten und füge die WHERE-Bedingung hinzu.
-        return new SelectBuilder(databaseManager, name)
+        SelectBuilder select = new SelectBuilder(databaseManager, name)
                 .columns(data)
-                .where(conditionCol, conditionValue)
-                .execute();
+                .where(conditionCol, conditionValue);
+        if (primaryReads)
+            select.fromPrimary();
+        return select.execute();
     }
 
     /**
@@ -95,16 +142,63 @@ public class Table {
         } else {
             query.append(conditionValue);
         }
-        return databaseManager.executeQuery(query.toString());
+        return read(query.toString());
     }
 
-    private CompletableFuture<Void> findColumns() {
-        String query = "SELECT * FROM " + name;
-        return databaseManager.executeQuery(query).thenAccept(resultSet -> {
-            for (int i = 0; i < resultSet.getColumnCount(); i++) {
-                tableColumns.add(new TableColumn(resultSet.getColumnName(i), resultSet.getColumnType(i)));
-            }
-        });
+    /**
+     * Ob Lesezugriffe dieser Tabelle (Laden in den Cache, {@link #exists(String)}, {@link #filter(Condition)},
+     * {@link #preload()} und die SELECT-Methoden) an den Primärserver statt an ein Replikat gehen. Nötig, wenn
+     * eine Zeile direkt nach einem Schreibzugriff an anderer Stelle, z. B. durch einen anderen Dienst, geladen
+     * werden muss und die Verzögerung der Replikate nicht toleriert wird. Ohne Replikate wirkungslos.
+     */
+    public Table readFromPrimary(boolean primaryReads) {
+        this.primaryReads = primaryReads;
+        return this;
+    }
+
+    private CompletableFuture<DatabaseResultMySQL> read(String query, Object... values) {
+        return primaryReads ? databaseManager.executeQuery(query, values) : databaseManager.executeReadQuery(query, values);
+    }
+
+    private CompletableFuture<DatabaseResultMySQL> readStreaming(String query, Object... values) {
+        return primaryReads ? databaseManager.executeStreamingQuery(query, values) : databaseManager.executeStreamingReadQuery(query, values);
+    }
+
+    private CompletableFuture<Void> requestColumns() {
+        return databaseManager.getSchemaCache().columns(name).thenAccept(this::applyColumns);
+    }
+
+    /**
+     * Wird abgeschlossen, sobald die Spalten bekannt sind. Schlug die Ermittlung fehl, etwa weil die
+     * Tabelle noch nicht existierte, wird sie erneut versucht.
+     */
+    private CompletableFuture<Void> schemaReady() {
+        CompletableFuture<Void> ready = schemaReady;
+        if (ready.isCompletedExceptionally()) {
+            ready = requestColumns();
+            schemaReady = ready;
+        }
+        return ready;
+    }
+
+    /**
+     * Übernimmt neue Spalten. Gecachte Zeilen mit dem alten Layout werden verworfen, ihre
+     * ungeschriebenen Änderungen zuvor gespeichert.
+     */
+    private synchronized void applyColumns(List<TableColumn> columns) {
+        if (columns.equals(tableColumns))
+            return;
+        boolean changed = !tableColumns.isEmpty();
+        StringBuilder select = new StringBuilder();
+        for (TableColumn column : columns) {
+            select.append(select.length() == 0 ? "" : ", ").append(column.getName());
+        }
+        rowLayout = new TableRowLayout(columns);
+        selectColumns = select.toString();
+        loadQuery = "SELECT " + selectColumns + " FROM " + name + " WHERE " + identifier + " = ?";
+        tableColumns = columns;
+        if (changed)
+            cachedEntries.invalidateAll();
     }
 
     private int getColumnAsIndex(String column) {
@@ -115,23 +209,301 @@ public class Table {
         return -1;
     }
 
+    /**
+     * Lädt eine Zeile in den Cache. Gleichzeitige Aufrufe für denselben Schlüssel teilen sich
+     * eine einzige Abfrage.
+     */
     private CompletableFuture<TableCachedEntry> load(String key) {
-        String query = "SELECT * FROM " + name + " WHERE " + identifier + " = ?";
-        return databaseManager.executeQuery(query, key).thenApply(resultSet -> {
-            TableCachedEntry entry = new TableCachedEntry(System.currentTimeMillis());
-            try {
-                if (resultSet.next()) {
-                    for (int i = 0; i < tableColumns.size(); i++) {
-                        // Verwende die neue Methode getResultSet() anstelle von resultSet.result()
-                        Object value = resultSet.getResultSet().getObject(i + 1);
-                        entry.getEntries().add(new TableEntry(tableColumns.get(i), value));
+        TableCachedEntry unwritten = reattach(key);
+        if (unwritten != null)
+            return CompletableFuture.completedFuture(unwritten);
+        CompletableFuture<TableCachedEntry> pending = new CompletableFuture<>();
+        CompletableFuture<TableCachedEntry> inFlight = pendingLoads.putIfAbsent(key, pending);
+        if (inFlight != null) {
+            cachedEntries.recordCoalescedLoad();
+            return inFlight;
+        }
+        cachedEntries.recordLoad();
+        TableLoadBatcher batcher = loadBatcher;
+        schemaReady().thenCompose(ignored -> batcher != null ? batcher.submit(key) : queryEntry(key)).whenComplete((entry, throwable) -> {
+            // Erst austragen, dann abschließen: spätere Aufrufer finden die Zeile bereits im Cache.
+            pendingLoads.remove(key, pending);
+            if (throwable != null)
+                pending.completeExceptionally(throwable);
+            else
+                pending.complete(entry);
+        });
+        return pending;
+    }
+
+    /**
+     * Lädt die von einem {@link TableLoadBatcher} gesammelten Schlüssel. Der Block wird auf die nächste Zweierpotenz
+     * aufgefüllt, so entstehen nur wenige verschiedene SQL-Texte für den Statement-Cache.
+     */
+    private CompletableFuture<Map<String, TableCachedEntry>> queryBatch(List<String> keys, int maxKeys) {
+        if (keys.size() == 1) {
+            String key = keys.get(0);
+            return queryEntry(key).thenApply(entry -> Map.of(key, entry));
+        }
+        return queryEntries(keys, Math.min(Integer.highestOneBit(keys.size() - 1) << 1, maxKeys));
+    }
+
+    private CompletableFuture<TableCachedEntry> queryEntry(String key) {
+        return read(loadQuery, key).thenApply(resultSet -> {
+            TableCachedEntry entry;
+            try (resultSet) {
+                entry = resultSet.next() ? readEntry(resultSet) : new TableCachedEntry(System.currentTimeMillis());
+            } catch (SQLException exception) {
+                throw new CompletionException("Error loading entry with key '" + key + "'", exception);
+            }
+            // Eine zwischenzeitlich z. B. durch preload gecachte Zeile kann bereits Änderungen enthalten.
+            TableCachedEntry existing = cachedEntries.putIfAbsent(key, entry);
+            return existing != null ? existing : entry;
+        });
+    }
+
+    /**
+     * Liest die aktuelle Zeile des Ergebnisses als Cache-Eintrag.
+     */
+    private TableCachedEntry readEntry(DatabaseResultMySQL resultSet) throws SQLException {
+        return TableCachedEntry.read(getRowLayout(), resultSet.getResultSet(), System.currentTimeMillis());
+    }
+
+    /**
+     * Das Speicherlayout gecachter Zeilen, abgeleitet aus den bekannten Spalten.
+     */
+    private TableRowLayout getRowLayout() {
+        return rowLayout;
+    }
+
+    /**
+     * Lädt mehrere Zeilen auf einmal. Bereits gecachte Schlüssel werden ohne Abfrage bedient, die übrigen
+     * in Blöcken von {@link #bulkChunkSize(int)} Schlüsseln per {@code WHERE identifier IN (...)} parallel
+     * über mehrere Verbindungen geladen. Schlüssel ohne Zeile erhalten wie bei {@code get} einen leeren Eintrag.
+     *
+     * @return die Einträge in der Reihenfolge der übergebenen Schlüssel
+     */
+    public CompletableFuture<Map<String, TableCachedEntry>> getAll(Collection<String> keys) {
+        Map<String, CompletableFuture<TableCachedEntry>> futures = new LinkedHashMap<>();
+        Map<String, CompletableFuture<TableCachedEntry>> missing = new LinkedHashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            TableCachedEntry cached = cachedEntries.get(key);
+            if (cached == null)
+                cached = reattach(key);
+            if (cached != null) {
+                futures.put(key, CompletableFuture.completedFuture(cached));
+                continue;
+            }
+            CompletableFuture<TableCachedEntry> pending = new CompletableFuture<>();
+            CompletableFuture<TableCachedEntry> inFlight = pendingLoads.putIfAbsent(key, pending);
+            if (inFlight != null) {
+                cachedEntries.recordCoalescedLoad();
+                futures.put(key, inFlight);
+            } else {
+                futures.put(key, pending);
+                missing.put(key, pending);
+            }
+        }
+
+        List<String> missingKeys = new ArrayList<>(missing.keySet());
+        int chunkSize = bulkChunkSize;
+        for (int from = 0; from < missingKeys.size(); from += chunkSize) {
+            List<String> chunk = missingKeys.subList(from, Math.min(from + chunkSize, missingKeys.size()));
+            cachedEntries.recordLoad();
+            schemaReady().thenCompose(ignored -> queryEntries(chunk, chunkSize)).whenComplete((loaded, throwable) -> {
+                for (String key : chunk) {
+                    CompletableFuture<TableCachedEntry> pending = missing.get(key);
+                    pendingLoads.remove(key, pending);
+                    if (throwable != null)
+                        pending.completeExceptionally(throwable);
+                    else
+                        pending.complete(loaded.get(key));
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, TableCachedEntry> result = new LinkedHashMap<>();
+            futures.forEach((key, future) -> result.put(key, future.join()));
+            return result;
+        });
+    }
+
+    /**
+     * Wie {@link #getAll(Collection)}, liefert aber nur den Wert einer Spalte je Schlüssel.
+     */
+    public CompletableFuture<Map<String, TableEntry>> getAll(Collection<String> keys, String column) {
+        return getAll(keys).thenApply(entries -> {
+            int index = getColumnAsIndex(column);
+            Map<String, TableEntry> result = new LinkedHashMap<>();
+            entries.forEach((key, entry) -> result.put(key, entry.getEntry(index)));
+            return result;
+        });
+    }
+
+    /**
+     * Lädt einen Block von Schlüsseln mit einer IN-Abfrage und legt alle Zeilen im Cache ab.
+     * Kürzere Blöcke werden mit dem letzten Schlüssel aufgefüllt, damit der SQL-Text gleich bleibt
+     * und der Statement-Cache greift.
+     *
+     * Die Zeilen werden den Schlüsseln über den als String gelesenen Identifier zugeordnet. MySQL vergleicht aber
+     * nach Typ und Collation, z. B. passt "007" auf die INT-ID 7 und "abc" auf "ABC". Bleiben Schlüssel ohne Zeile,
+     * obwohl Zeilen geliefert wurden, werden sie deshalb einzeln wie in {@link #queryEntry(String)} geladen, statt
+     * sie als nicht vorhanden zu cachen; gebündelte und einzelne Ladevorgänge liefern so dasselbe.
+     */
+    private CompletableFuture<Map<String, TableCachedEntry>> queryEntries(List<String> keys, int chunkSize) {
+        Object[] values = new Object[chunkSize];
+        for (int i = 0; i < chunkSize; i++) {
+            values[i] = keys.get(Math.min(i, keys.size() - 1));
+        }
+        return read(getBulkLoadQuery(chunkSize), values).thenCompose(resultSet -> {
+            Map<String, TableCachedEntry> rows = new HashMap<>();
+            try (resultSet) {
+                while (resultSet.next()) {
+                    String key = String.valueOf(resultSet.getResultSet().getObject(identifier));
+                    rows.put(key, readEntry(resultSet));
+                }
+            } catch (SQLException exception) {
+                throw new CompletionException("Error loading " + keys.size() + " entries from table '" + name + "'", exception);
+            }
+            Map<String, TableCachedEntry> loaded = new HashMap<>();
+            List<String> unmatched = new ArrayList<>();
+            for (String key : new LinkedHashSet<>(keys)) {
+                TableCachedEntry entry = rows.get(key);
+                if (entry == null && !rows.isEmpty()) {
+                    unmatched.add(key);
+                    continue;
+                }
+                if (entry == null)
+                    entry = new TableCachedEntry(System.currentTimeMillis());
+                TableCachedEntry existing = cachedEntries.putIfAbsent(key, entry);
+                loaded.put(key, existing != null ? existing : entry);
+            }
+            if (unmatched.isEmpty())
+                return CompletableFuture.completedFuture(loaded);
+            List<CompletableFuture<TableCachedEntry>> singles = new ArrayList<>(unmatched.size());
+            for (String key : unmatched) {
+                singles.add(queryEntry(key));
+            }
+            return CompletableFuture.allOf(singles.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                for (int i = 0; i < unmatched.size(); i++) {
+                    loaded.put(unmatched.get(i), singles.get(i).join());
+                }
+                return loaded;
+            });
+        });
+    }
+
+    private String getBulkLoadQuery(int chunkSize) {
+        String select = selectColumns;
+        BulkLoadQuery bulk = bulkLoadQueries.get(chunkSize);
+        if (bulk == null || !bulk.selectColumns.equals(select)) {
+            StringBuilder query = new StringBuilder("SELECT ").append(select).append(" FROM ").append(name)
+                    .append(" WHERE ").append(identifier).append(" IN (");
+            for (int i = 0; i < chunkSize; i++) {
+                query.append(i == 0 ? "?" : ", ?");
+            }
+            query.append(")");
+            bulk = new BulkLoadQuery(select, query.toString());
+            bulkLoadQueries.put(chunkSize, bulk);
+        }
+        return bulk.sql;
+    }
+
+    /**
+     * Anzahl der Schlüssel pro IN-Abfrage in {@link #getAll(Collection)}.
+     */
+    public Table bulkChunkSize(int bulkChunkSize) {
+        if (bulkChunkSize < 1)
+            throw new IllegalArgumentException("bulkChunkSize must be at least 1");
+        this.bulkChunkSize = bulkChunkSize;
+        return this;
+    }
+
+    /**
+     * Bündelt Fehlgriffe von {@link #get(String, String)}, {@link #exists(String)} und {@link #set(String, String, Object)}:
+     * Schlüssel, die innerhalb des Zeitfensters angefragt werden, werden mit einer gemeinsamen
+     * {@code WHERE identifier IN (...)}-Abfrage geladen, höchstens {@code maxKeys} pro Abfrage. Jeder Aufruf wartet
+     * dafür bis zu einem Zeitfenster länger, bei vielen gleichzeitigen Zugriffen sinkt dafür die Zahl der Abfragen
+     * deutlich. Die Ergebnisse sind dieselben wie ohne Bündeln, auch für Schlüssel, die MySQL nach Collation oder
+     * Typ anders vergleicht als Java, siehe {@link #queryEntries(List, int)}. {@code maxKeys} von 0 oder 1 schaltet
+     * das Bündeln ab.
+     *
+     * Beispiel:
+     *   table.batchLoads(64, 2, TimeUnit.MILLISECONDS)
+     */
+    public Table batchLoads(int maxKeys, long window, TimeUnit unit) {
+        if (maxKeys < 0 || window < 0)
+            throw new IllegalArgumentException("maxKeys and window cannot be negative");
+        this.loadBatcher = maxKeys <= 1 ? null : new TableLoadBatcher(maxKeys, unit.toNanos(window), keys -> queryBatch(keys, maxKeys));
+        return this;
+    }
+
+    /**
+     * Lädt die ganze Tabelle in den Cache, siehe {@link #preload(Condition, int)}.
+     */
+    public TablePreload preload() {
+        return preload(null);
+    }
+
+    /**
+     * Lädt die passenden Zeilen über die Hälfte der Pool-Verbindungen in den Cache, siehe {@link #preload(Condition, int)}.
+     */
+    public TablePreload preload(Condition condition) {
+        return preload(condition, Math.max(1, databaseManager.getSettings().getMaximumPoolSize() / 2));
+    }
+
+    /**
+     * Lädt alle Zeilen, auf die die Bedingung zutrifft ({@code null} für alle), im Hintergrund in den Cache.
+     * Der Wertebereich des Identifiers wird in bis zu {@code parallelism} Teilbereiche zerlegt, die parallel
+     * über eigene Verbindungen gestreamt werden. Fehlgriffe werden währenddessen normal über die übrigen
+     * Verbindungen bedient. Bereits gecachte Zeilen werden nicht überschrieben, und ist der Cache voll, endet
+     * das Vorladen, statt andere Zeilen zu verdrängen.
+     *
+     * Beispiel:
+     *   table.preload(Condition.gte("last_login", since), 4).completion().join()
+     */
+    public TablePreload preload(Condition condition, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        TablePreload preload = new TablePreload(name);
+        schemaReady()
+                .thenCompose(ignored -> KeyRanges.split(databaseManager, name, identifier, condition, parallelism, PRELOAD_MIN_PARTITION_ROWS))
+                .thenCompose(ranges -> {
+                    preload.start(ranges.getRowCount(), ranges.getRanges().size());
+                    List<CompletableFuture<Void>> reads = new ArrayList<>(ranges.getRanges().size());
+                    for (Condition partition : ranges.getRanges()) {
+                        reads.add(preloadPartition(partition, preload));
+                    }
+                    return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0]));
+                })
+                .whenComplete((ignored, throwable) -> {
+                    preload.finish(throwable);
+                    if (throwable != null)
+                        LOGGER.log(Level.WARNING, "Preloading table '" + name + "' failed after " + preload.getRowsRead() + " rows.", throwable);
+                    else
+                        LOGGER.log(Level.INFO, preload.toString());
+                });
+        return preload;
+    }
+
+    private CompletableFuture<Void> preloadPartition(Condition partition, TablePreload preload) {
+        String query = "SELECT " + selectColumns + " FROM " + name + " WHERE " + partition.getSql();
+        return readStreaming(query, partition.getParameters().toArray()).thenAccept(result -> {
+            try (result) {
+                while (result.next()) {
+                    String key = String.valueOf(result.getResultSet().getObject(identifier));
+                    boolean cached = cachedEntries.offer(key, readEntry(result));
+                    preload.recordRow(cached);
+                    if (!cached && cachedEntries.isFull()) {
+                        preload.markCacheFull();
+                        break;
                     }
                 }
             } catch (SQLException exception) {
-                throw new CompletionException("Error loading entry with key '" + key + "'", exception);
+                throw new CompletionException("Error while preloading table '" + name + "'", exception);
             }
-            cachedEntries.put(key, entry);
-            return entry;
+            preload.completePartition();
         });
     }
 
@@ -152,53 +524,85 @@ public class Table {
         return tableColumns;
     }
 
+    /**
+     * Liefert den Zeilen-Cache, z. B. um Größe und Verfallszeit einzustellen oder die Trefferquote abzufragen.
+     */
+    public TableCache getCache() {
+        return cachedEntries;
+    }
+
     public boolean isLoaded(String key) {
-        return cachedEntries.containsKey(key);
+        return cachedEntries.contains(key);
     }
 
     public CompletableFuture<Boolean> exists(String key) {
-        String query = "SELECT * FROM " + name + " WHERE " + identifier + " = ?";
-        return databaseManager.executeQuery(query, key).thenApply(DatabaseResultMySQL::next);
+        if (loadBatcher != null) {
+            // Gebündelt: Die Zeile wird mitgeladen und beantwortet folgende get-Aufrufe aus dem Cache.
+            TableCachedEntry cached = cachedEntries.get(key);
+            if (cached != null)
+                return CompletableFuture.completedFuture(cached.isPresent());
+            return load(key).thenApply(TableCachedEntry::isPresent);
+        }
+        return read(existsQuery, key).thenApply(resultSet -> {
+            try (resultSet) {
+                return resultSet.next();
+            }
+        });
     }
 
     public CompletableFuture<TableEntry> get(String key, String column) {
-        if (cachedEntries.containsKey(key))
-            return CompletableFuture.completedFuture(cachedEntries.get(key).getEntries().get(getColumnAsIndex(column)));
-        return load(key).thenApply(cachedEntry -> cachedEntry.getEntries().get(getColumnAsIndex(column)));
+        TableCachedEntry cached = cachedEntries.get(key);
+        if (cached != null)
+            return CompletableFuture.completedFuture(cached.getEntry(getColumnAsIndex(column)));
+        return load(key).thenApply(cachedEntry -> cachedEntry.getEntry(getColumnAsIndex(column)));
     }
 
     public void set(String key, String column, Object value) {
-        if (cachedEntries.containsKey(key)) {
-            cachedEntries.get(key).getEntries().get(getColumnAsIndex(column)).update(value);
+        TableCachedEntry cached = cachedEntries.get(key);
+        if (cached != null) {
+            int index = getColumnAsIndex(column);
+            cached.set(index, value);
             return;
         }
-        load(key).thenAccept(cachedEntry -> cachedEntry.getEntries().get(getColumnAsIndex(column)).update(value));
+        load(key).thenAccept(cachedEntry -> {
+            int index = getColumnAsIndex(column);
+            cachedEntry.set(index, value);
+        });
     }
 
     public void delete(String key) {
         try {
-            String query = "DELETE FROM " + name + " WHERE " + identifier + " = ?";
-            databaseManager.executeUpdate(query, key);
+            databaseManager.executeUpdate(deleteQuery, key);
             cachedEntries.remove(key);
+            pendingWrites.remove(key);
         } catch (Exception exception) {
             throw new RuntimeException("Error occurred while deleting entry with key '" + key + "' from table '" + name + "'", exception);
         }
     }
 
     public CompletableFuture<List<Object>> filter(String column, Object value) {
-        int index = getColumnAsIndex(column);
-        if (index == -1)
-            throw new RuntimeException("table '" + name + "' contains no column '" + column + "'");
-        String query = "SELECT * FROM " + name;
-        return databaseManager.executeQuery(query).thenApply(databaseResult -> {
+        return schemaReady().thenCompose(ignored -> {
+            if (getColumnAsIndex(column) == -1)
+                throw new RuntimeException("table '" + name + "' contains no column '" + column + "'");
+            return filter(Condition.eq(column, value));
+        });
+    }
+
+    /**
+     * Liefert die Identifier aller Zeilen, auf die die Bedingung zutrifft. Die Bedingung wird als
+     * WHERE-Klausel an MySQL übergeben, übertragen werden nur die Identifier.
+     *
+     * Beispiel:
+     *   table.filter(Condition.and(Condition.eq("land", "Deutschland"), Condition.gte("punkte", 100)))
+     */
+    public CompletableFuture<List<Object>> filter(Condition condition) {
+        String query = "SELECT " + identifier + " FROM " + name + " WHERE " + condition.getSql();
+        // Streaming, damit auch sehr viele Treffer nicht vollständig gepuffert werden.
+        return readStreaming(query, condition.getParameters().toArray()).thenApply(databaseResult -> {
             List<Object> result = new ArrayList<>();
-            try {
+            try (databaseResult) {
                 while (databaseResult.next()) {
-                    // Hinweis: Die Indizierung der Spalten in JDBC beginnt bei 1.
-                    // Falls tableColumns.get(index) einem 0-basierten Index entspricht, solltest Du ggf. index+1 verwenden.
-                    TableEntry entry = new TableEntry(tableColumns.get(index), databaseResult.getResultSet().getObject(index + 1));
-                    if (entry.compare(value))
-                        result.add(databaseResult.getResultSet().getObject(identifier));
+                    result.add(databaseResult.getResultSet().getObject(1));
                 }
             } catch (SQLException exception) {
                 throw new RuntimeException("An error occurred while filtering the table '" + name + "'", exception);
@@ -209,37 +613,185 @@ public class Table {
 
 
     /**
-     * Aktualisiert einen Eintrag in der Datenbank basierend auf dem Cache.
+     * Schreibt die geänderten Spalten eines Eintrags in die Datenbank und entfernt ihn anschließend aus dem Cache.
+     * Unveränderte Einträge werden ohne Abfrage entfernt.
      */
-    public void update(String key) {
-        if (!cachedEntries.containsKey(key))
+    public CompletableFuture<Void> update(String key) {
+        TableCachedEntry cached = cachedEntries.get(key);
+        if (cached == null)
             throw new RuntimeException("The key '" + key + "' does not exist in the memory");
-        StringBuilder query = new StringBuilder("INSERT INTO " + name + " VALUES (");
-        for (int i = 0; i < tableColumns.size(); i++) {
-            query.append("?");
-            if (i < tableColumns.size() - 1)
-                query.append(", ");
+        CompletableFuture<Void> write = writeBackRemoved(key, cached);
+        unload(key);
+        return write;
+    }
+
+    /**
+     * Schreibt alle geänderten Einträge, die Einträge bleiben im Cache. Zeilen mit denselben geänderten
+     * Spalten werden in einem gemeinsamen Batch geschrieben, unveränderte Zeilen werden übersprungen.
+     */
+    public CompletableFuture<Void> flush() {
+        // Nach Layout getrennt, falls sich das Schema während des Flushs ändert
+        Map<TableRowLayout, Map<BitSet, List<PendingWrite>>> groups = new HashMap<>();
+        Map<String, TableCachedEntry> dirtyEntries = cachedEntries.dirtyEntries();
+        // Auch entfernte Einträge, deren Zurückschreiben fehlgeschlagen ist
+        pendingWrites.forEach((key, entry) -> {
+            if (entry.isDirty())
+                dirtyEntries.putIfAbsent(key, entry);
+        });
+        for (Map.Entry<String, TableCachedEntry> dirty : dirtyEntries.entrySet()) {
+            TableCachedEntry entry = dirty.getValue();
+            BitSet columns = entry.takeDirtyColumns();
+            if (columns.isEmpty())
+                continue;
+            // Wie in writeBackRemoved: Verlässt der Eintrag während des Batches den Cache, überspringt ihn der
+            // Removal-Listener, weil er nicht mehr geändert ist; bis zur Bestätigung bleibt er so erreichbar.
+            pendingWrites.put(dirty.getKey(), entry);
+            groups.computeIfAbsent(entry.getLayout(), ignored -> new HashMap<>())
+                    .computeIfAbsent(columns, ignored -> new ArrayList<>())
+                    .add(new PendingWrite(dirty.getKey(), entry, updateValues(dirty.getKey(), entry, columns)));
         }
-        query.append(") ON DUPLICATE KEY UPDATE ");
-        for (int i = 0; i < tableColumns.size(); i++) {
-            query.append(tableColumns.get(i).getName());
-            query.append(" = ?");
-            if (i < tableColumns.size() - 1)
+        List<CompletableFuture<int[]>> batches = new ArrayList<>();
+        groups.forEach((layout, byColumns) -> byColumns.forEach((columns, writes) -> {
+            List<Object[]> rows = new ArrayList<>(writes.size());
+            for (PendingWrite write : writes) {
+                rows.add(write.values);
+            }
+            String query = buildUpdateQuery(layout, columns);
+            CompletableFuture<int[]> batch = databaseManager.withLane(LaneMySQL.BACKGROUND, () -> databaseManager.executeBatch(query, rows));
+            batches.add(batch.whenComplete((counts, throwable) -> {
+                // Fehlgeschlagene Zeilen bleiben geändert und werden beim nächsten Flush erneut geschrieben.
+                for (int i = 0; i < writes.size(); i++) {
+                    PendingWrite write = writes.get(i);
+                    if (throwable != null || counts[i] == Statement.EXECUTE_FAILED) {
+                        write.entry.restoreDirty(columns);
+                        pendingWrites.putIfAbsent(write.key, write.entry);
+                    } else if (!write.entry.isDirty())
+                        pendingWrites.remove(write.key, write.entry);
+                }
+            }));
+        }));
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Startet einen Hintergrund-Thread, der in festen Abständen {@link #flush()} ausführt.
+     */
+    public synchronized Table startFlusher(long period, TimeUnit unit) {
+        stopFlusher();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dbBox-flusher-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush().join();
+            } catch (RuntimeException exception) {
+                LOGGER.log(Level.WARNING, "Flushing dirty entries of table '" + name + "' failed.", exception);
+            }
+        }, period, period, unit);
+        return this;
+    }
+
+    public synchronized void stopFlusher() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher = null;
+        }
+    }
+
+    /**
+     * Schreibt einen Eintrag, der den Cache verlässt. Bis das Schreiben bestätigt ist, liegt er in {@code pendingWrites}
+     * und wird von {@link #load(String)} statt der Datenbank geliefert, die ihn noch nicht (bzw. auf einem Replikat
+     * erst recht nicht) enthält. Schlägt das Schreiben fehl, bleibt er dort mit seinen Änderungen und wird beim
+     * nächsten {@link #flush()} erneut geschrieben.
+     */
+    private CompletableFuture<Void> writeBackRemoved(String key, TableCachedEntry entry) {
+        if (!entry.isDirty())
+            return CompletableFuture.completedFuture(null);
+        pendingWrites.put(key, entry);
+        return writeBack(key, entry).whenComplete((ignored, throwable) -> {
+            if (throwable == null && !entry.isDirty())
+                pendingWrites.remove(key, entry);
+        });
+    }
+
+    /**
+     * Holt einen noch nicht geschriebenen Eintrag zurück in den Cache.
+     */
+    private TableCachedEntry reattach(String key) {
+        TableCachedEntry unwritten = pendingWrites.get(key);
+        if (unwritten == null)
+            return null;
+        TableCachedEntry existing = cachedEntries.putIfAbsent(key, unwritten);
+        pendingWrites.remove(key, unwritten);
+        return existing != null ? existing : unwritten;
+    }
+
+    private CompletableFuture<Void> writeBack(String key, TableCachedEntry entry) {
+        BitSet columns = entry.takeDirtyColumns();
+        if (columns.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        return databaseManager.executeUpdate(buildUpdateQuery(entry.getLayout(), columns), updateValues(key, entry, columns))
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        entry.restoreDirty(columns);
+                        // Falls der Eintrag den Cache inzwischen verlassen hat, gehen die Änderungen so nicht verloren.
+                        pendingWrites.putIfAbsent(key, entry);
+                    }
+                });
+    }
+
+    private String buildUpdateQuery(TableRowLayout layout, BitSet columns) {
+        StringBuilder query = new StringBuilder("UPDATE ").append(name).append(" SET ");
+        boolean first = true;
+        for (int i = columns.nextSetBit(0); i >= 0; i = columns.nextSetBit(i + 1)) {
+            if (!first)
                 query.append(", ");
+            query.append(layout.getColumnName(i)).append(" = ?");
+            first = false;
         }
-        Object[] values = new Object[tableColumns.size()];
-        for (int i = 0; i < tableColumns.size(); i++) {
-            values[i] = cachedEntries.get(key).getEntries().get(i);
+        return query.append(" WHERE ").append(identifier).append(" = ?").toString();
+    }
+
+    private Object[] updateValues(String key, TableCachedEntry entry, BitSet columns) {
+        Object[] values = new Object[columns.cardinality() + 1];
+        int index = 0;
+        for (int i = columns.nextSetBit(0); i >= 0; i = columns.nextSetBit(i + 1)) {
+            values[index++] = entry.getValue(i);
+        }
+        values[index] = key;
+        return values;
+    }
+
+    private static final class BulkLoadQuery {
+        private final String selectColumns;
+        private final String sql;
+
+        private BulkLoadQuery(String selectColumns, String sql) {
+            this.selectColumns = selectColumns;
+            this.sql = sql;
+        }
+    }
+
+    private static final class PendingWrite {
+        private final String key;
+        private final TableCachedEntry entry;
+        private final Object[] values;
+
+        private PendingWrite(String key, TableCachedEntry entry, Object[] values) {
+            this.key = key;
+            this.entry = entry;
+            this.values = values;
         }
-        databaseManager.executeUpdate(query.toString(), values);
-        unload(key);
     }
 
     /**
      * Erzeugt einen neuen SelectBuilder für SELECT-Abfragen.
      */
     public SelectBuilder select() {
-        return new SelectBuilder(databaseManager, name);
+        SelectBuilder select = new SelectBuilder(databaseManager, name);
+        return primaryReads ? select.fromPrimary() : select;
     }
 
     /**
@@ -76,6 +76,7 @@ public class TableBuilder {
 
 
         databaseManager.executeUpdate(query.toString())
+                .thenRun(() -> databaseManager.getSchemaCache().invalidate(name))
                 .exceptionally(ex -> {
                     throw new DatabaseException("Error creating table " + name, ex);
                 });
@@ -0,0 +1,279 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Threadsicherer Zeilen-Cache einer {@link Table}. Einträge werden nach LRU verdrängt, sobald die maximale
+ * Anzahl bzw. das maximale Gewicht überschritten ist, und verfallen nach der über
+ * {@link #expireAfterWrite(long, TimeUnit)} gesetzten Zeit ab {@link TableCachedEntry#getTime()}.
+ */
+public class TableCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final LinkedHashMap<String, TableCachedEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private long maximumWeight = 0;
+    private ToLongFunction<TableCachedEntry> weigher;
+    // Gewicht beim Einfügen; Einträge ändern sich danach per set, abgezogen wird daher der gespeicherte Wert.
+    private final Map<String, Long> weights = new HashMap<>();
+    private long totalWeight;
+    private long expireAfterMillis = 0;
+    private BiConsumer<String, TableCachedEntry> removalListener;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    /**
+     * Maximale Anzahl gecachter Zeilen. 0 hebt die Grenze auf.
+     */
+    public synchronized TableCache maximumSize(long maximumSize) {
+        if (maximumSize < 0)
+            throw new IllegalArgumentException("maximumSize cannot be negative");
+        this.maximumSize = maximumSize;
+        evictOverflow();
+        return this;
+    }
+
+    /**
+     * Begrenzt den Cache nach Gewicht statt nach Anzahl, z. B. nach geschätzter Größe in Bytes.
+     */
+    public synchronized TableCache maximumWeight(long maximumWeight, ToLongFunction<TableCachedEntry> weigher) {
+        if (maximumWeight <= 0)
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.maximumSize = 0;
+        weights.clear();
+        totalWeight = 0;
+        entries.forEach(this::addWeight);
+        evictOverflow();
+        return this;
+    }
+
+    /**
+     * Einträge verfallen, sobald sie älter als die angegebene Zeit sind. 0 deaktiviert den Verfall.
+     */
+    public synchronized TableCache expireAfterWrite(long duration, TimeUnit unit) {
+        this.expireAfterMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Liefert den Eintrag oder {@code null}, wenn er fehlt oder abgelaufen ist.
+     */
+    public synchronized TableCachedEntry get(String key) {
+        TableCachedEntry entry = getUnexpired(key);
+        if (entry == null)
+            misses.increment();
+        else
+            hits.increment();
+        return entry;
+    }
+
+    /**
+     * Wie {@link #get(String)}, aber ohne Einfluss auf Statistik und LRU-Reihenfolge.
+     */
+    public synchronized boolean contains(String key) {
+        TableCachedEntry entry = entries.get(key);
+        return entry != null && !isExpired(entry, System.currentTimeMillis());
+    }
+
+    public synchronized void put(String key, TableCachedEntry entry) {
+        entries.put(key, entry);
+        subtractWeight(key);
+        addWeight(key, entry);
+        evictOverflow();
+    }
+
+    /**
+     * Legt den Eintrag nur ab, wenn der Schlüssel noch nicht gecacht ist.
+     *
+     * @return der bereits vorhandene Eintrag oder {@code null}, wenn der neue übernommen wurde
+     */
+    public synchronized TableCachedEntry putIfAbsent(String key, TableCachedEntry entry) {
+        TableCachedEntry existing = getUnexpired(key);
+        if (existing != null)
+            return existing;
+        put(key, entry);
+        return null;
+    }
+
+    /**
+     * Wie {@link #putIfAbsent(String, TableCachedEntry)}, verdrängt aber keine anderen Einträge: Ist der Cache
+     * voll, wird der Eintrag verworfen. Für das Vorladen, damit es häufig genutzte Zeilen nicht verdrängt.
+     *
+     * @return ob der Eintrag übernommen wurde
+     */
+    synchronized boolean offer(String key, TableCachedEntry entry) {
+        if (getUnexpired(key) != null || isFull(weigher == null ? 1 : weigher.applyAsLong(entry)))
+            return false;
+        put(key, entry);
+        return true;
+    }
+
+    /**
+     * Ob ein weiterer Eintrag nur unter Verdrängung eines anderen Platz hätte.
+     */
+    public synchronized boolean isFull() {
+        return isFull(1);
+    }
+
+    public synchronized TableCachedEntry remove(String key) {
+        return removeEntry(key);
+    }
+
+    /**
+     * Wird für verdrängte und abgelaufene Einträge aufgerufen, nicht für explizit entfernte.
+     * Der Listener läuft unter der Sperre des Caches und darf nicht blockieren.
+     */
+    synchronized void setRemovalListener(BiConsumer<String, TableCachedEntry> removalListener) {
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Momentaufnahme aller Einträge mit ungeschriebenen Änderungen.
+     */
+    synchronized Map<String, TableCachedEntry> dirtyEntries() {
+        Map<String, TableCachedEntry> dirty = new HashMap<>();
+        for (Map.Entry<String, TableCachedEntry> mapping : entries.entrySet()) {
+            if (mapping.getValue().isDirty())
+                dirty.put(mapping.getKey(), mapping.getValue());
+        }
+        return dirty;
+    }
+
+    /**
+     * Entfernt alle Einträge und meldet jeden dem Removal-Listener, sodass ungeschriebene Änderungen
+     * nicht verloren gehen.
+     */
+    synchronized void invalidateAll() {
+        Map<String, TableCachedEntry> removed = new HashMap<>(entries);
+        clear();
+        removed.forEach(this::notifyRemoval);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weights.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entfernt alle abgelaufenen Einträge auf einmal.
+     */
+    public synchronized void cleanUp() {
+        if (expireAfterMillis <= 0)
+            return;
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, TableCachedEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, TableCachedEntry> mapping = iterator.next();
+            TableCachedEntry entry = mapping.getValue();
+            if (isExpired(entry, now)) {
+                iterator.remove();
+                subtractWeight(mapping.getKey());
+                expirations.increment();
+                notifyRemoval(mapping.getKey(), entry);
+            }
+        }
+    }
+
+    public TableCacheStatistics statistics() {
+        return new TableCacheStatistics(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                loads.sum(), coalescedLoads.sum(), size());
+    }
+
+    void recordLoad() {
+        loads.increment();
+    }
+
+    /**
+     * Ein Fehlgriff, der sich an eine bereits laufende Abfrage für denselben Schlüssel angehängt hat.
+     */
+    void recordCoalescedLoad() {
+        coalescedLoads.increment();
+    }
+
+    /**
+     * Liefert den Eintrag ohne Statistik; ein abgelaufener Eintrag wird entfernt und dem Listener gemeldet.
+     */
+    private TableCachedEntry getUnexpired(String key) {
+        TableCachedEntry entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+            removeEntry(key);
+            expirations.increment();
+            notifyRemoval(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean isExpired(TableCachedEntry entry, long now) {
+        return expireAfterMillis > 0 && now - entry.getTime() >= expireAfterMillis;
+    }
+
+    private TableCachedEntry removeEntry(String key) {
+        TableCachedEntry removed = entries.remove(key);
+        if (removed != null)
+            subtractWeight(key);
+        return removed;
+    }
+
+    private void addWeight(String key, TableCachedEntry entry) {
+        if (weigher == null)
+            return;
+        long weight = weigher.applyAsLong(entry);
+        weights.put(key, weight);
+        totalWeight += weight;
+    }
+
+    private void subtractWeight(String key) {
+        Long weight = weights.remove(key);
+        if (weight != null)
+            totalWeight -= weight;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, TableCachedEntry>> iterator = entries.entrySet().iterator();
+        while (isOverflowing() && iterator.hasNext()) {
+            Map.Entry<String, TableCachedEntry> eldest = iterator.next();
+            iterator.remove();
+            subtractWeight(eldest.getKey());
+            evictions.increment();
+            notifyRemoval(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void notifyRemoval(String key, TableCachedEntry entry) {
+        if (removalListener != null)
+            removalListener.accept(key, entry);
+    }
+
+    private boolean isFull(long additionalWeight) {
+        if (weigher != null)
+            return totalWeight + additionalWeight > maximumWeight;
+        return maximumSize > 0 && entries.size() >= maximumSize;
+    }
+
+    private boolean isOverflowing() {
+        if (weigher != null)
+            return totalWeight > maximumWeight;
+        return maximumSize > 0 && entries.size() > maximumSize;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+/**
+ * Momentaufnahme der Kennzahlen eines {@link TableCache}.
+ */
+public class TableCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long loads;
+    private final long coalescedLoads;
+    private final int size;
+
+    TableCacheStatistics(long hits, long misses, long evictions, long expirations, long loads, long coalescedLoads, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.loads = loads;
+        this.coalescedLoads = coalescedLoads;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Anzahl der Abfragen, die wegen eines Fehlgriffs an die Datenbank gingen.
+     */
+    public long getLoads() {
+        return loads;
+    }
+
+    /**
+     * Anzahl der Fehlgriffe, die keine eigene Abfrage ausgelöst haben, weil bereits eine lief.
+     */
+    public long getCoalescedLoads() {
+        return coalescedLoads;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "TableCacheStatistics{size=" + size + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", expirations=" + expirations + ", loads=" + loads
+                + ", coalescedLoads=" + coalescedLoads + "}";
+    }
+}
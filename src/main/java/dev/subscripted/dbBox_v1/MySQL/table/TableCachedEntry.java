@@ -1,23 +1,269 @@
 package dev.subscripted.dbBox_v1.MySQL.table;
 
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Eine gecachte Zeile. Die Werte liegen ungeboxt in typisierten Arrays gemäß dem {@link TableRowLayout};
+ * ein Eintrag ohne Layout steht für einen Schlüssel, zu dem keine Zeile existiert.
+ *
+ * Alle Zugriffe sind auf dem Eintrag synchronisiert: Mehrere Spalten teilen sich die Bit-Wörter für Booleans und
+ * NULL-Werte, und der Flush-Thread muss die zuletzt gesetzten Werte sehen.
+ */
 public class TableCachedEntry {
 
     private final long time;
-    private final List<TableEntry> entries;
+    private final TableRowLayout layout;
+    private final long[] longs;
+    private final double[] doubles;
+    private final String[] strings;
+    private final long[] booleans;
+    private final long[] nulls;
+    private final BitSet dirtyColumns;
 
     public TableCachedEntry(long time) {
+        this(time, null);
+    }
+
+    public TableCachedEntry(long time, TableRowLayout layout) {
         this.time = time;
-        this.entries = new ArrayList<>();
+        this.layout = layout;
+        this.longs = layout == null ? null : new long[layout.getLongCount()];
+        this.doubles = layout == null ? null : new double[layout.getDoubleCount()];
+        this.strings = layout == null ? null : new String[layout.getStringCount()];
+        this.booleans = layout == null ? null : new long[(layout.getBooleanCount() + 63) >>> 6];
+        this.nulls = layout == null ? null : new long[(layout.getColumnCount() + 63) >>> 6];
+        this.dirtyColumns = new BitSet();
+    }
+
+    /**
+     * Liest die aktuelle Zeile des ResultSets mit den typisierten Gettern, ohne Werte zu boxen.
+     */
+    static TableCachedEntry read(TableRowLayout layout, ResultSet resultSet, long time) throws SQLException {
+        TableCachedEntry entry = new TableCachedEntry(time, layout);
+        for (int column = 0; column < layout.getColumnCount(); column++) {
+            int slot = layout.getSlot(column);
+            int index = column + 1;
+            switch (layout.getType(column)) {
+                case INT:
+                case LONG:
+                    entry.longs[slot] = resultSet.getLong(index);
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    entry.doubles[slot] = resultSet.getDouble(index);
+                    break;
+                case BOOLEAN:
+                    if (resultSet.getBoolean(index))
+                        entry.booleans[slot >>> 6] |= 1L << slot;
+                    break;
+                default:
+                    entry.strings[slot] = resultSet.getString(index);
+                    break;
+            }
+            if (resultSet.wasNull())
+                entry.nulls[column >>> 6] |= 1L << column;
+        }
+        return entry;
+    }
+
+    TableRowLayout getLayout() {
+        return layout;
     }
 
     public long getTime() {
         return time;
     }
 
+    /**
+     * Gibt an, ob zu diesem Schlüssel eine Zeile in der Datenbank existiert.
+     */
+    public boolean isPresent() {
+        return layout != null;
+    }
+
+    public int getColumnCount() {
+        return layout == null ? 0 : layout.getColumnCount();
+    }
+
+    public TableDataType getType(int column) {
+        return layout.getType(column);
+    }
+
+    /**
+     * Liefert die Spalten als {@link TableEntry}-Ansichten auf diese Zeile. Die Liste ist nicht veränderbar,
+     * Werte werden über {@link TableEntry#update(Object)} bzw. {@link #set(int, Object)} geändert.
+     */
     public List<TableEntry> getEntries() {
-        return entries;
+        if (layout == null)
+            return Collections.emptyList();
+        return new AbstractList<TableEntry>() {
+            @Override
+            public TableEntry get(int index) {
+                return getEntry(index);
+            }
+
+            @Override
+            public int size() {
+                return layout.getColumnCount();
+            }
+        };
+    }
+
+    /**
+     * Liefert die Spalte als {@link TableEntry}-Ansicht, ohne eine Liste anzulegen.
+     */
+    public TableEntry getEntry(int column) {
+        if (layout == null || column < 0 || column >= layout.getColumnCount())
+            throw new IndexOutOfBoundsException("Column index " + column + " out of range");
+        return new TableEntry(this, column);
+    }
+
+    public synchronized boolean isNull(int column) {
+        return (nulls[column >>> 6] & (1L << column)) != 0;
+    }
+
+    public synchronized int getInt(int column) {
+        check(column, TableDataType.INT);
+        return (int) longs[layout.getSlot(column)];
+    }
+
+    public synchronized long getLong(int column) {
+        check(column, TableDataType.LONG);
+        return longs[layout.getSlot(column)];
+    }
+
+    public synchronized float getFloat(int column) {
+        check(column, TableDataType.FLOAT);
+        return (float) doubles[layout.getSlot(column)];
+    }
+
+    public synchronized double getDouble(int column) {
+        check(column, TableDataType.DOUBLE);
+        return doubles[layout.getSlot(column)];
+    }
+
+    public synchronized boolean getBoolean(int column) {
+        check(column, TableDataType.BOOLEAN);
+        int slot = layout.getSlot(column);
+        return (booleans[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public synchronized String getString(int column) {
+        check(column, TableDataType.STRING);
+        return strings[layout.getSlot(column)];
+    }
+
+    /**
+     * Liefert den Wert geboxt, z. B. zum Binden an ein Statement. {@code null} bei SQL-NULL.
+     */
+    public synchronized Object getValue(int column) {
+        if (isNull(column))
+            return null;
+        switch (layout.getType(column)) {
+            case INT:
+                return getInt(column);
+            case LONG:
+                return getLong(column);
+            case FLOAT:
+                return getFloat(column);
+            case DOUBLE:
+                return getDouble(column);
+            case BOOLEAN:
+                return getBoolean(column);
+            default:
+                return getString(column);
+        }
+    }
+
+    /**
+     * Setzt einen Wert und markiert die Spalte als geändert, gleich ob über {@link Table#set(String, String, Object)}
+     * oder {@link TableEntry#update(Object)}. Der Typ muss genau dem Java-Typ der Spalte entsprechen.
+     */
+    public synchronized void set(int column, Object value) {
+        if (layout == null) {
+            throw new RuntimeException("can not set a value on a row that does not exist");
+        }
+        if (value == null) {
+            throw new RuntimeException("the table entry cannot be null");
+        }
+        TableDataType type = layout.getType(column);
+        if (!type.getJavaType().equals(value.getClass())) {
+            throw new RuntimeException("can not set " + value.getClass().getName() + " to " + type.getJavaType().getName() + " entry");
+        }
+        int slot = layout.getSlot(column);
+        switch (type) {
+            case INT:
+            case LONG:
+                longs[slot] = ((Number) value).longValue();
+                break;
+            case FLOAT:
+            case DOUBLE:
+                doubles[slot] = ((Number) value).doubleValue();
+                break;
+            case BOOLEAN:
+                if ((Boolean) value)
+                    booleans[slot >>> 6] |= 1L << slot;
+                else
+                    booleans[slot >>> 6] &= ~(1L << slot);
+                break;
+            default:
+                strings[slot] = (String) value;
+                break;
+        }
+        nulls[column >>> 6] &= ~(1L << column);
+        dirtyColumns.set(column);
+    }
+
+    /**
+     * Grobe Schätzung des Heap-Verbrauchs in Bytes, z. B. als Gewicht für {@link TableCache#maximumWeight}.
+     */
+    public synchronized long estimatedBytes() {
+        if (layout == null)
+            return 48;
+        long bytes = 64 + 5 * 16L + 8L * (longs.length + doubles.length + booleans.length + nulls.length) + 4L * strings.length;
+        for (String value : strings) {
+            if (value != null)
+                bytes += 40 + value.length();
+        }
+        return bytes;
+    }
+
+    private void check(int column, TableDataType expected) {
+        if (layout.getType(column) != expected)
+            throw new RuntimeException("failed get " + layout.getType(column) + " entry as " + expected);
+    }
+
+    /**
+     * Merkt sich, dass die Spalte im Speicher geändert wurde und noch geschrieben werden muss.
+     */
+    public synchronized void markDirty(int columnIndex) {
+        dirtyColumns.set(columnIndex);
+    }
+
+    public synchronized boolean isDirty() {
+        return !dirtyColumns.isEmpty();
+    }
+
+    public synchronized BitSet getDirtyColumns() {
+        return (BitSet) dirtyColumns.clone();
+    }
+
+    /**
+     * Liefert die geänderten Spalten und setzt sie zurück. Schlägt das Schreiben fehl,
+     * müssen sie mit {@link #restoreDirty(BitSet)} wieder markiert werden.
+     */
+    synchronized BitSet takeDirtyColumns() {
+        BitSet taken = (BitSet) dirtyColumns.clone();
+        dirtyColumns.clear();
+        return taken;
+    }
+
+    synchronized void restoreDirty(BitSet columns) {
+        dirtyColumns.or(columns);
     }
-}
\ No newline at end of file
+}
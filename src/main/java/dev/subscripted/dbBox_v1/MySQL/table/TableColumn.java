@@ -5,9 +5,13 @@ public class TableColumn {
     private final String name;
     private final TableDataType dataType;
 
+    /**
+     * @param dataType SQL-Typname oder Name einer {@link TableDataType}-Konstante
+     * @see TableDataType#fromSqlType(String)
+     */
     public TableColumn(String name, String dataType) {
         this.name = name;
-        this.dataType = TableDataType.valueOf(dataType);
+        this.dataType = TableDataType.fromSqlType(dataType);
     }
 
     public TableColumn(String name, TableDataType dataType) {
@@ -22,4 +26,19 @@ public class TableColumn {
     public TableDataType getDataType() {
         return dataType;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof TableColumn))
+            return false;
+        TableColumn column = (TableColumn) other;
+        return name.equals(column.name) && dataType == column.dataType;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + dataType.hashCode();
+    }
 }
\ No newline at end of file
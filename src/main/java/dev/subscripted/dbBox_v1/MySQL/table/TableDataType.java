@@ -1,5 +1,7 @@
 package dev.subscripted.dbBox_v1.MySQL.table;
 
+import java.util.Locale;
+
 public enum TableDataType {
     STRING(String.class, "VARCHAR", ""),
     INT(Integer.class, "INT", 0),
@@ -29,4 +31,41 @@ public enum TableDataType {
     public Object getDefaultValue() {
         return defaultValue;
     }
+
+    /**
+     * Ordnet einen SQL-Typnamen, wie ihn {@code INFORMATION_SCHEMA.COLUMNS.COLUMN_TYPE} oder
+     * {@link java.sql.ResultSetMetaData#getColumnTypeName(int)} liefert, dem passenden Typ zu.
+     * {@code TINYINT(1)} und {@code BIT} gelten als BOOLEAN, {@code INT UNSIGNED} als LONG; Dezimalzahlen,
+     * Datumswerte und alle unbekannten Typen werden verlustfrei als STRING behandelt.
+     * Die Namen der Konstanten selbst werden ebenfalls akzeptiert.
+     */
+    public static TableDataType fromSqlType(String sqlType) {
+        String type = sqlType.trim().toUpperCase(Locale.ROOT);
+        if (type.startsWith("TINYINT(1)") || type.equals("BIT") || type.startsWith("BIT(1)") || type.startsWith("BOOL"))
+            return BOOLEAN;
+        int end = 0;
+        while (end < type.length() && Character.isLetter(type.charAt(end))) {
+            end++;
+        }
+        boolean unsigned = type.contains("UNSIGNED");
+        switch (type.substring(0, end)) {
+            case "BIGINT":
+            case "LONG":
+                return LONG;
+            case "INT":
+            case "INTEGER":
+                return unsigned ? LONG : INT;
+            case "MEDIUMINT":
+            case "SMALLINT":
+            case "TINYINT":
+                return INT;
+            case "FLOAT":
+            case "REAL":
+                return FLOAT;
+            case "DOUBLE":
+                return DOUBLE;
+            default:
+                return STRING;
+        }
+    }
 }
@@ -1,23 +1,41 @@
 package dev.subscripted.dbBox_v1.MySQL.table;
 
+/**
+ * Ein einzelner Spaltenwert. Entweder ein eigenständiger Wert oder eine Ansicht auf eine Spalte
+ * eines {@link TableCachedEntry}, deren Zugriffe ungeboxt an die Zeile weitergereicht werden.
+ */
 public class TableEntry {
 
     private final TableDataType dataType;
+    private final TableCachedEntry row;
+    private final int column;
     private Object value;
 
     public TableEntry(TableColumn column, Object value) {
         this.dataType = column.getDataType();
+        this.row = null;
+        this.column = -1;
         this.value = value;
     }
 
+    TableEntry(TableCachedEntry row, int column) {
+        this.dataType = row.getType(column);
+        this.row = row;
+        this.column = column;
+    }
+
     public boolean compare(Object other) {
         if (dataType.getJavaType().equals(other.getClass())) {
-            return value.equals(other);
+            return other.equals(getValue());
         }
         return false;
     }
 
     public void update(Object value) {
+        if (row != null) {
+            row.set(column, value);
+            return;
+        }
         if (value == null) {
             throw new RuntimeException("the table entry cannot be null");
         }
@@ -27,6 +45,10 @@ public class TableEntry {
         this.value = value;
     }
 
+    public Object getValue() {
+        return row != null ? row.getValue(column) : value;
+    }
+
     public boolean isString() {
         return dataType.equals(TableDataType.STRING);
     }
@@ -35,7 +57,7 @@ public class TableEntry {
         if (!isString()) {
             throw new RuntimeException("failed get non string entry as string");
         }
-        return (String) value;
+        return row != null ? row.getString(column) : (String) value;
     }
 
     public boolean isInt() {
@@ -46,7 +68,7 @@ public class TableEntry {
         if (!isInt()) {
             throw new RuntimeException("failed get non integer entry as integer");
         }
-        return (int) value;
+        return row != null ? row.getInt(column) : (int) value;
     }
 
     public boolean isLong() {
@@ -57,7 +79,7 @@ public class TableEntry {
         if (!isLong()) {
             throw new RuntimeException("failed get non long entry as long");
         }
-        return (long) value;
+        return row != null ? row.getLong(column) : (long) value;
     }
 
     public boolean isFloat() {
@@ -68,7 +90,7 @@ public class TableEntry {
         if (!isFloat()) {
             throw new RuntimeException("failed get non float entry as float");
         }
-        return (float) value;
+        return row != null ? row.getFloat(column) : (float) value;
     }
 
     public boolean isDouble() {
@@ -79,7 +101,7 @@ public class TableEntry {
         if (!isDouble()) {
             throw new RuntimeException("failed get non double entry as double");
         }
-        return (double) value;
+        return row != null ? row.getDouble(column) : (double) value;
     }
 
     public boolean isBoolean() {
@@ -90,6 +112,6 @@ public class TableEntry {
         if (!isBoolean()) {
             throw new RuntimeException("failed get non boolean entry as boolean");
         }
-        return (boolean) value;
+        return row != null ? row.getBoolean(column) : (boolean) value;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sammelt einzelne Ladevorgänge einer {@link Table}, bis das Zeitfenster abläuft oder {@code maxKeys} Schlüssel
+ * zusammengekommen sind, und lädt sie mit einer gemeinsamen IN-Abfrage. Jeder Aufrufer erhält seine eigene Zeile.
+ * Gleiche Schlüssel kommen nicht doppelt an, das verhindert bereits {@code pendingLoads} der Tabelle.
+ */
+final class TableLoadBatcher {
+
+    private final int maxKeys;
+    private final Executor timer;
+    private final Function<List<String>, CompletableFuture<Map<String, TableCachedEntry>>> loader;
+    private PendingBatch current;
+
+    TableLoadBatcher(int maxKeys, long windowNanos, Function<List<String>, CompletableFuture<Map<String, TableCachedEntry>>> loader) {
+        this.maxKeys = maxKeys;
+        // Kein eigener Thread: Der Timer stößt nur die Abfrage an, die auf dem Executor des Managers läuft.
+        this.timer = CompletableFuture.delayedExecutor(windowNanos, TimeUnit.NANOSECONDS);
+        this.loader = loader;
+    }
+
+    CompletableFuture<TableCachedEntry> submit(String key) {
+        CompletableFuture<TableCachedEntry> future = new CompletableFuture<>();
+        PendingBatch full = null;
+        synchronized (this) {
+            PendingBatch batch = current;
+            if (batch == null) {
+                batch = new PendingBatch();
+                current = batch;
+                PendingBatch scheduled = batch;
+                timer.execute(() -> flush(scheduled));
+            }
+            batch.keys.add(key);
+            batch.futures.add(future);
+            if (batch.keys.size() >= maxKeys) {
+                current = null;
+                full = batch;
+            }
+        }
+        if (full != null)
+            execute(full);
+        return future;
+    }
+
+    private void flush(PendingBatch batch) {
+        synchronized (this) {
+            if (current != batch)
+                return;
+            current = null;
+        }
+        execute(batch);
+    }
+
+    private void execute(PendingBatch batch) {
+        CompletableFuture<Map<String, TableCachedEntry>> load;
+        try {
+            load = loader.apply(batch.keys);
+        } catch (RuntimeException exception) {
+            load = CompletableFuture.failedFuture(exception);
+        }
+        load.whenComplete((loaded, throwable) -> {
+            for (int i = 0; i < batch.keys.size(); i++) {
+                if (throwable != null)
+                    batch.futures.get(i).completeExceptionally(throwable);
+                else
+                    batch.futures.get(i).complete(loaded.get(batch.keys.get(i)));
+            }
+        });
+    }
+
+    private static final class PendingBatch {
+        private final List<String> keys = new ArrayList<>();
+        private final List<CompletableFuture<TableCachedEntry>> futures = new ArrayList<>();
+    }
+}
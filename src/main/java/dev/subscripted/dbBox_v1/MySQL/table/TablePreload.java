@@ -0,0 +1,131 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fortschritt eines laufenden {@link Table#preload()}. Alle Werte können während des Vorladens
+ * abgefragt werden, {@link #completion()} wird nach dem letzten Teilbereich abgeschlossen.
+ */
+public class TablePreload {
+
+    private final String table;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder rowsCached = new LongAdder();
+    private final AtomicInteger completedPartitions = new AtomicInteger();
+    private final CompletableFuture<TablePreload> completion = new CompletableFuture<>();
+    private volatile long expectedRows = -1;
+    private volatile int partitions;
+    private volatile boolean cacheFull;
+    private volatile long endNanos;
+
+    TablePreload(String table) {
+        this.table = table;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Anzahl der Zeilen, die die Bedingung erfüllen, oder -1, solange sie noch nicht ermittelt wurde.
+     */
+    public long getExpectedRows() {
+        return expectedRows;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    /**
+     * Anzahl der gelesenen Zeilen, die in den Cache übernommen wurden. Bereits gecachte Zeilen werden
+     * nicht überschrieben.
+     */
+    public long getRowsCached() {
+        return rowsCached.sum();
+    }
+
+    /**
+     * Anzahl der parallel gelesenen Bereiche des Identifiers.
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getCompletedPartitions() {
+        return completedPartitions.get();
+    }
+
+    /**
+     * Anteil der gelesenen Zeilen zwischen 0 und 1.
+     */
+    public double getProgress() {
+        if (isDone())
+            return 1;
+        long expected = expectedRows;
+        return expected <= 0 ? 0 : Math.min(1, (double) getRowsRead() / expected);
+    }
+
+    public double getRowsPerSecond() {
+        long elapsed = getElapsed(TimeUnit.NANOSECONDS);
+        return elapsed == 0 ? 0 : getRowsRead() * 1_000_000_000.0 / elapsed;
+    }
+
+    public long getElapsed(TimeUnit unit) {
+        long end = endNanos;
+        return unit.convert((end == 0 ? System.nanoTime() : end) - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ob das Vorladen vorzeitig endete, weil der Cache voll war.
+     */
+    public boolean isCacheFull() {
+        return cacheFull;
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    public CompletableFuture<TablePreload> completion() {
+        return completion;
+    }
+
+    void start(long expectedRows, int partitions) {
+        this.expectedRows = expectedRows;
+        this.partitions = partitions;
+    }
+
+    void recordRow(boolean cached) {
+        rowsRead.increment();
+        if (cached)
+            rowsCached.increment();
+    }
+
+    void markCacheFull() {
+        cacheFull = true;
+    }
+
+    void completePartition() {
+        completedPartitions.incrementAndGet();
+    }
+
+    void finish(Throwable throwable) {
+        endNanos = System.nanoTime();
+        if (throwable != null)
+            completion.completeExceptionally(throwable);
+        else
+            completion.complete(this);
+    }
+
+    @Override
+    public String toString() {
+        return "TablePreload{table=" + table + ", rowsRead=" + getRowsRead() + ", rowsCached=" + getRowsCached()
+                + ", expectedRows=" + expectedRows + ", partitions=" + getCompletedPartitions() + "/" + partitions
+                + ", rowsPerSecond=" + Math.round(getRowsPerSecond()) + ", cacheFull=" + cacheFull + "}";
+    }
+}
@@ -0,0 +1,86 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import java.util.List;
+
+/**
+ * Ordnet jeder Spalte einer Tabelle einen typisierten Speicherplatz in einem {@link TableCachedEntry} zu:
+ * INT/LONG in einem {@code long[]}, FLOAT/DOUBLE in einem {@code double[]}, BOOLEAN als Bit und STRING
+ * in einem {@code String[]}. So werden gecachte Zeilen ohne geboxte Werte gespeichert.
+ */
+public final class TableRowLayout {
+
+    private final String[] names;
+    private final TableDataType[] types;
+    private final int[] slots;
+    private final int longCount;
+    private final int doubleCount;
+    private final int stringCount;
+    private final int booleanCount;
+
+    public TableRowLayout(List<TableColumn> columns) {
+        this.names = new String[columns.size()];
+        this.types = new TableDataType[columns.size()];
+        this.slots = new int[columns.size()];
+        int longs = 0;
+        int doubles = 0;
+        int strings = 0;
+        int booleans = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            TableDataType type = columns.get(i).getDataType();
+            names[i] = columns.get(i).getName();
+            types[i] = type;
+            switch (type) {
+                case INT:
+                case LONG:
+                    slots[i] = longs++;
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    slots[i] = doubles++;
+                    break;
+                case BOOLEAN:
+                    slots[i] = booleans++;
+                    break;
+                default:
+                    slots[i] = strings++;
+                    break;
+            }
+        }
+        this.longCount = longs;
+        this.doubleCount = doubles;
+        this.stringCount = strings;
+        this.booleanCount = booleans;
+    }
+
+    public int getColumnCount() {
+        return types.length;
+    }
+
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    public TableDataType getType(int column) {
+        return types[column];
+    }
+
+    int getSlot(int column) {
+        return slots[column];
+    }
+
+    int getLongCount() {
+        return longCount;
+    }
+
+    int getDoubleCount() {
+        return doubleCount;
+    }
+
+    int getStringCount() {
+        return stringCount;
+    }
+
+    int getBooleanCount() {
+        return booleanCount;
+    }
+}
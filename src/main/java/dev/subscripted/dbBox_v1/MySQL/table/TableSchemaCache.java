@@ -0,0 +1,289 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import dev.subscripted.dbBox_v1.MySQL.exception.DatabaseException;
+import dev.subscripted.dbBox_v1.MySQL.src.DatabaseResultMySQL;
+import dev.subscripted.dbBox_v1.MySQL.src.DatasourceManagerMySQL;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Spalten aller Tabellen eines {@link DatasourceManagerMySQL}. Ermittelt werden sie über
+ * {@code INFORMATION_SCHEMA.COLUMNS}, ohne Tabellendaten zu übertragen; alle Tabellen, die gleichzeitig
+ * angefragt werden, teilen sich eine Abfrage. Tabellen, die dort nicht auftauchen, werden per
+ * {@code SELECT * FROM name LIMIT 0} nachgeschlagen.
+ *
+ * Mit {@code DatasourceSettingsMySQL.schemaCacheFile(Path)} wird das Schema zusätzlich in einer Datei abgelegt.
+ * Nach einem Neustart stehen die Spalten damit sofort zur Verfügung, der Dateistand wird im Hintergrund
+ * mit der Datenbank abgeglichen.
+ *
+ * @see dev.subscripted.dbBox_v1.MySQL.src.DatasourceSettingsMySQL#schemaCacheFile(Path)
+ */
+public class TableSchemaCache {
+
+    private static final Logger LOGGER = Logger.getLogger(TableSchemaCache.class.getName());
+
+    private final DatasourceManagerMySQL databaseManager;
+    private final Executor executor;
+    private final Path file;
+    private final ConcurrentHashMap<String, List<TableColumn>> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<List<TableColumn>>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean discoveryScheduled = new AtomicBoolean();
+    private final ConcurrentHashMap<String, List<Consumer<List<TableColumn>>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor führt das Sammeln angefragter Tabellen aus, i. d. R. der Executor des Managers
+     * @param file     Datei für das persistente Schema oder {@code null}
+     */
+    public TableSchemaCache(DatasourceManagerMySQL databaseManager, Executor executor, Path file) {
+        this.databaseManager = databaseManager;
+        this.executor = executor;
+        this.file = file;
+        if (file != null && Files.exists(file) && readFile())
+            refresh().exceptionally(throwable -> {
+                LOGGER.log(Level.WARNING, "Revalidating the schema cache from '" + file + "' failed.", throwable);
+                return null;
+            });
+    }
+
+    /**
+     * Liefert die Spalten einer Tabelle. Unbekannte Tabellen werden zusammen mit allen anderen
+     * gerade angefragten Tabellen in einer Abfrage ermittelt.
+     */
+    public CompletableFuture<List<TableColumn>> columns(String table) {
+        List<TableColumn> known = schemas.get(table);
+        if (known != null)
+            return CompletableFuture.completedFuture(known);
+        CompletableFuture<List<TableColumn>> created = new CompletableFuture<>();
+        CompletableFuture<List<TableColumn>> existing = pending.putIfAbsent(table, created);
+        if (existing != null)
+            return existing;
+        queued.add(table);
+        if (discoveryScheduled.compareAndSet(false, true))
+            try {
+                executor.execute(this::discoverQueued);
+            } catch (RejectedExecutionException exception) {
+                // Nach dem Herunterfahren schlägt die Abfrage selbst fehl und die Futures werden abgeschlossen.
+                discoverQueued();
+            }
+        return created;
+    }
+
+    /**
+     * Liefert die bekannten Spalten ohne Datenbankzugriff oder {@code null}.
+     */
+    public List<TableColumn> getCached(String table) {
+        return schemas.get(table);
+    }
+
+    /**
+     * Ermittelt die Spalten aller bekannten Tabellen mit einer Abfrage neu.
+     */
+    public CompletableFuture<Void> refresh() {
+        List<String> tables = new ArrayList<>(schemas.keySet());
+        if (tables.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        return discover(tables).thenAccept(this::apply);
+    }
+
+    /**
+     * Vergisst das Schema einer Tabelle, z. B. nach einem {@code ALTER TABLE}. Bereits erzeugte
+     * {@link Table}-Objekte erhalten die neuen Spalten, sobald sie ermittelt sind.
+     */
+    public void invalidate(String table) {
+        schemas.remove(table);
+        if (listeners.containsKey(table))
+            columns(table);
+    }
+
+    /**
+     * Wird mit den Spalten aufgerufen, sooft das Schema der Tabelle ermittelt wurde.
+     */
+    void addListener(String table, Consumer<List<TableColumn>> listener) {
+        listeners.computeIfAbsent(table, ignored -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void discoverQueued() {
+        discoveryScheduled.set(false);
+        List<String> tables = new ArrayList<>();
+        String table;
+        while ((table = queued.poll()) != null) {
+            tables.add(table);
+        }
+        if (tables.isEmpty())
+            return;
+        discover(tables).whenComplete((discovered, throwable) -> {
+            if (discovered != null)
+                apply(discovered);
+            for (String name : tables) {
+                CompletableFuture<List<TableColumn>> future = pending.remove(name);
+                if (future == null)
+                    continue;
+                if (throwable != null)
+                    future.completeExceptionally(throwable);
+                else if (discovered.containsKey(name))
+                    future.complete(discovered.get(name));
+                else
+                    future.completeExceptionally(new DatabaseException("Table '" + name + "' does not exist"));
+            }
+        });
+    }
+
+    /**
+     * Fragt {@code INFORMATION_SCHEMA} für alle Tabellen auf einmal ab und schlägt fehlende einzeln
+     * per {@code LIMIT 0} nach. Nicht existierende Tabellen fehlen im Ergebnis.
+     */
+    private CompletableFuture<Map<String, List<TableColumn>>> discover(List<String> tables) {
+        StringBuilder query = new StringBuilder("SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME IN (");
+        for (int i = 0; i < tables.size(); i++) {
+            query.append(i == 0 ? "?" : ", ?");
+        }
+        query.append(") ORDER BY TABLE_NAME, ORDINAL_POSITION");
+        return databaseManager.executeQuery(query.toString(), tables.toArray())
+                .thenApply(result -> readInformationSchema(result, tables))
+                .exceptionally(throwable -> {
+                    LOGGER.log(Level.FINE, "INFORMATION_SCHEMA is not available, falling back to LIMIT 0.", throwable);
+                    return new LinkedHashMap<>();
+                })
+                .thenCompose(discovered -> {
+                    List<CompletableFuture<Void>> lookups = new ArrayList<>();
+                    for (String table : tables) {
+                        if (!discovered.containsKey(table))
+                            lookups.add(describe(table).thenAccept(columns -> {
+                                synchronized (discovered) {
+                                    discovered.put(table, columns);
+                                }
+                            }).exceptionally(throwable -> {
+                                LOGGER.log(Level.FINE, "Table '" + table + "' could not be described.", throwable);
+                                return null;
+                            }));
+                    }
+                    return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> discovered);
+                });
+    }
+
+    private Map<String, List<TableColumn>> readInformationSchema(DatabaseResultMySQL result, List<String> tables) {
+        Map<String, List<TableColumn>> discovered = new LinkedHashMap<>();
+        try (result) {
+            ResultSet resultSet = result.getResultSet();
+            // COLUMN_TYPE enthält im Gegensatz zu DATA_TYPE die Breite, nötig für TINYINT(1)
+            String typeColumn = hasColumn(resultSet.getMetaData(), "COLUMN_TYPE") ? "COLUMN_TYPE" : "DATA_TYPE";
+            while (result.next()) {
+                String table = requestedName(tables, resultSet.getString("TABLE_NAME"));
+                if (table != null)
+                    discovered.computeIfAbsent(table, ignored -> new ArrayList<>())
+                            .add(new TableColumn(resultSet.getString("COLUMN_NAME"), resultSet.getString(typeColumn)));
+            }
+        } catch (SQLException exception) {
+            throw new CompletionException("Error while reading INFORMATION_SCHEMA.COLUMNS", exception);
+        }
+        discovered.replaceAll((table, columns) -> List.copyOf(columns));
+        return discovered;
+    }
+
+    private CompletableFuture<List<TableColumn>> describe(String table) {
+        return databaseManager.executeQuery("SELECT * FROM " + table + " LIMIT 0").thenApply(result -> {
+            try (result) {
+                List<TableColumn> columns = new ArrayList<>();
+                for (int i = 1; i <= result.getColumnCount(); i++) {
+                    columns.add(new TableColumn(result.getColumnName(i), result.getColumnType(i)));
+                }
+                return List.copyOf(columns);
+            }
+        });
+    }
+
+    private void apply(Map<String, List<TableColumn>> discovered) {
+        discovered.forEach((table, columns) -> {
+            schemas.put(table, columns);
+            for (Consumer<List<TableColumn>> listener : listeners.getOrDefault(table, List.of())) {
+                listener.accept(columns);
+            }
+        });
+        if (file != null && !discovered.isEmpty())
+            writeFile();
+    }
+
+    private boolean readFile() {
+        try {
+            Map<String, List<TableColumn>> loaded = new LinkedHashMap<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || line.startsWith("#"))
+                    continue;
+                String[] parts = line.split("\t");
+                if (parts.length != 3)
+                    throw new IOException("Malformed line: " + line);
+                loaded.computeIfAbsent(parts[0], ignored -> new ArrayList<>())
+                        .add(new TableColumn(parts[1], TableDataType.valueOf(parts[2])));
+            }
+            loaded.forEach((table, columns) -> schemas.put(table, List.copyOf(columns)));
+            return !loaded.isEmpty();
+        } catch (IOException | IllegalArgumentException exception) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable schema cache file '" + file + "'.", exception);
+            return false;
+        }
+    }
+
+    private synchronized void writeFile() {
+        StringBuilder content = new StringBuilder("# dbBox schema cache: table, column, type\n");
+        new TreeMap<>(schemas).forEach((table, columns) -> {
+            for (TableColumn column : columns) {
+                content.append(table).append('\t').append(column.getName()).append('\t')
+                        .append(column.getDataType().name()).append('\n');
+            }
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to write the schema cache file '" + file + "'.", exception);
+        }
+    }
+
+    private static boolean hasColumn(ResultSetMetaData metaData, String column) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (metaData.getColumnLabel(i).equalsIgnoreCase(column))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * MySQL liefert Tabellennamen je nach {@code lower_case_table_names} in anderer Schreibweise zurück.
+     */
+    private static String requestedName(Collection<String> tables, String found) {
+        for (String table : tables) {
+            if (table.equalsIgnoreCase(found))
+                return table;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.subscripted.dbBox_v1.MySQL.table;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Konsistentes Hashing: Jeder Shard belegt viele Punkte auf einem 64-Bit-Ring, ein Schlüssel gehört dem
+ * nächsten Punkt im Uhrzeigersinn. Kommt ein Shard hinzu, wandert also nur etwa der neue Anteil der
+ * Schlüssel, die übrigen bleiben, wo sie waren. Die Punkte hängen nur vom Namen des Shards ab, nicht von
+ * der Reihenfolge der Konfiguration, und sind über JVM-Neustarts stabil.
+ */
+final class TableShardRing<T> {
+
+    // Punkte je Shard; mit 512 weicht der Anteil eines Shards typischerweise nur wenige Prozent vom Mittel ab.
+    private static final int VIRTUAL_NODES = 512;
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+
+    TableShardRing(Map<String, T> shards) {
+        if (shards.isEmpty())
+            throw new IllegalArgumentException("at least one shard is required");
+        shards.forEach((name, shard) -> {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(name + "#" + i), shard);
+            }
+        });
+    }
+
+    T get(String key) {
+        Map.Entry<Long, T> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * FNV-1a über die UTF-8-Bytes, danach der Finalizer von MurmurHash3, damit auch ähnliche Schlüssel
+     * wie fortlaufende Nummern gleichmäßig über den Ring verteilt werden.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}